@@ -1,6 +1,6 @@
 package ogs.data.analysis;
 
-import ogs.data.core.CellValue;
+import ogs.data.core.CellColumn;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,20 +18,18 @@ public class CellValueToBooleanMapper {
         )
     );
 
-    public static Boolean tryMap(CellValue cellValue) {
+    public static Boolean tryMap(CellColumn column, int row) {
 
-        if (cellValue == null)
-            return null;
-
-        switch (cellValue.getType()) {
+        switch (column.getType(row)) {
             case BOOLEAN -> {
-                return cellValue.getBoolean();
+                return column.getBoolean(row);
             }
             case STRING -> {
-                return stringMap.getOrDefault(cellValue.getString(), null);
+                return stringMap.getOrDefault(column.getString(row), null);
             }
             case NUMERIC -> {
-                if (cellValue.getValue() instanceof Double value) {
+                if (!column.isDate(row)) {
+                    double value = column.getDouble(row);
                     if (value == 1.0) return true;
                     if (value == 0.0) return false;
                 }
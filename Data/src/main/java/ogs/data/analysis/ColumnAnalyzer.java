@@ -1,18 +1,18 @@
 package ogs.data.analysis;
 
+import ogs.data.core.CellColumn;
 import ogs.data.core.CellValue;
-import ogs.model.core.RegExPatterns;
+import ogs.data.core.ColumnStore;
 import ogs.model.core.TableAnalysisConcept;
-import org.apache.poi.ss.usermodel.CellType;
 
-import java.util.*;
+import java.util.function.ToDoubleFunction;
 
 public class ColumnAnalyzer {
 
     // Data
     private int columnIndex;
     private String header;
-    private CellValue[] columnData;
+    private CellColumn columnData;
 
     // Metrics
     private double completeness = Double.NaN;
@@ -23,6 +23,11 @@ public class ColumnAnalyzer {
 
     private double wordAverage = Double.NaN;
     private double wordMedian = Double.NaN;
+    private boolean metricsAreUpToDate = false;
+
+    // Approximation
+    private double approximationError = 0; // Exact
+    private double metricsRelativeError = 0;
 
     // Conclusion
     private TableAnalysisConcept definition = null;
@@ -30,127 +35,162 @@ public class ColumnAnalyzer {
 
     public void update(CellValue[] column, int index) {
 
-        columnIndex = index;
-        header = column[0].toString();
-        columnData = Arrays.stream(column)
-                .skip(1)
-                .toArray(CellValue[]::new);
+        update(column[0].toString(), ColumnStore.of(column).skip(1), index);
     }
 
-    public void measureAll() {
+    /**
+     * @param columnData the values of the column without its header.
+     */
+    public void update(String header, CellColumn columnData, int index) {
 
-        measureBasic();
-        measureTokens();
-        measureWords();
+        this.columnIndex = index;
+        this.header = header;
+        this.columnData = columnData;
     }
 
-    public void measureBasic() {
-
-        int columnLength = columnData.length;
+    /**
+     * Measures all metrics in a single pass over the column (see {@link ColumnProfile}).
+     */
+    public void measureAll() {
 
-        if (columnLength == 0) {
-            completeness = Double.NaN;
-            uniqueness = Double.NaN;
-            uniquenessIgnoringNulls = Double.NaN;
-            return;
-        }
+        var profile = measureProfile();
 
-        Set<Object> uniqueValues = new HashSet<>(columnLength);
-        int nullCount = 0;
+        applyBasicMetrics(profile);
+        applyTokenMetrics(profile);
+        applyWordMetrics(profile);
+        metricsAreUpToDate = true;
+    }
 
-        for (CellValue cellValue : columnData) {
+    /**
+     * Marks the metrics as stale, e.g., because the values of the column changed since they were measured.
+     */
+    public void invalidateMetrics() {
+        metricsAreUpToDate = false;
+    }
 
-            // Completeness
-            if (cellValue == null || cellValue.isNull()) {
-                nullCount++;
-                continue;
-            }
+    /**
+     * @return {@code true} if {@link #measureAll()} ran since the column was created or last invalidated.
+     */
+    public boolean metricsAreUpToDate() {
+        return metricsAreUpToDate;
+    }
 
-            // Uniqueness
-            uniqueValues.add(cellValue.getValue());
-        }
+    public void measureBasic() {
+        applyBasicMetrics(measureProfile());
+    }
 
-        int uniqueCount = uniqueValues.size();
+    public void measureTokens() {
+        applyTokenMetrics(measureProfile());
+    }
 
-        completeness = 1.0 - (double) nullCount / columnLength;
-        uniqueness = (double) uniqueCount / columnLength;
-        uniquenessIgnoringNulls = (columnLength - nullCount) >= 0
-                ? (double) (uniqueCount - (uniqueValues.contains(null) ? 1 : 0))
-                    / (columnLength - nullCount)
-                : 0;
+    public void measureWords() {
+        applyWordMetrics(measureProfile());
     }
 
-    public void measureTokens() {
+    private ColumnProfile measureProfile() {
 
-        int columnLength = columnData.length;
+        var profile = new ColumnProfile(columnData, approximationError);
+        metricsRelativeError = profile.getRelativeError();
+        return profile;
+    }
 
-        if (columnLength == 0) {
-            tokenUniqueness = Double.NaN;
-            return;
-        }
+    /**
+     * Measures the uniqueness metrics of large columns approximately, see {@link ColumnProfile}.
+     * Threshold comparisons re-measure the column exactly when an estimate is within three standard errors
+     * of the threshold. Outside that margin, an estimate still falls on the wrong side of the threshold with
+     * a probability of about 0.3% per comparison, so decisions may rarely differ from exact ones.
+     *
+     * @param approximationError the relative standard error allowed for distinct counts, or 0 to count exactly.
+     */
+    public void setApproximationError(double approximationError) {
+        this.approximationError = approximationError;
+    }
 
-        Set<String> uniqueTokens = new HashSet<>(columnLength);
-        int tokenCount = 0;
+    /**
+     * @return {@code true} if the uniqueness metrics are estimates.
+     */
+    public boolean metricsAreApproximate() {
+        return metricsRelativeError > 0;
+    }
 
-        for (CellValue cellValue : columnData) {
+    /**
+     * Tells whether {@code metric} of this column is {@code >= threshold}. If the metric is an estimate
+     * too close to the threshold to tell, the column is measured exactly before comparing.
+     */
+    public boolean metricIsAtLeast(ToDoubleFunction<ColumnAnalyzer> metric, double threshold) {
+        return compareMetric(metric, column -> threshold, true);
+    }
+
+    /**
+     * Tells whether {@code metric} of this column is {@code <= threshold}. If the metric is an estimate
+     * too close to the threshold to tell, the column is measured exactly before comparing.
+     */
+    public boolean metricIsAtMost(ToDoubleFunction<ColumnAnalyzer> metric, double threshold) {
+        return compareMetric(metric, column -> threshold, false);
+    }
 
-            if (cellValue == null || cellValue.isNull())
-                continue;
+    /**
+     * Tells whether {@code metric} of this column is {@code <=} its {@code otherMetric}. If both are estimates
+     * too close to each other to tell, the column is measured exactly before comparing.
+     */
+    public boolean metricIsAtMost(ToDoubleFunction<ColumnAnalyzer> metric, ToDoubleFunction<ColumnAnalyzer> otherMetric) {
+        return compareMetric(metric, otherMetric, false);
+    }
 
-            var tokens = Arrays.stream(cellValue.toString()
-                    .split(RegExPatterns.TOKENIZATION))
-                    .toList();
+    private boolean compareMetric(ToDoubleFunction<ColumnAnalyzer> metric,
+                                  ToDoubleFunction<ColumnAnalyzer> threshold,
+                                  boolean atLeast) {
 
-            uniqueTokens.addAll(tokens);
-            tokenCount += tokens.size();
-        }
+        if (metricsAreApproximate()
+            && isWithinErrorMargin(metric.applyAsDouble(this), threshold.applyAsDouble(this)))
+            measureExactly();
 
-        int uniqueTokenCount = uniqueTokens.size();
+        double value = metric.applyAsDouble(this);
+        double thresholdValue = threshold.applyAsDouble(this);
 
-        tokenUniqueness = (double) uniqueTokenCount / tokenCount;
+        return atLeast ? value >= thresholdValue : value <= thresholdValue;
     }
 
-    public void measureWords() {
+    private boolean isWithinErrorMargin(double value, double threshold) {
 
-        if (columnData.length == 0) {
-            wordAverage = Double.NaN;
-            wordMedian = Double.NaN;
-            return;
-        }
+        // Three standard errors on both sides, as the threshold may be an estimate as well.
+        // The margin is probabilistic: an estimate is further off about once in 370 comparisons.
+        double margin = 3 * metricsRelativeError * (Math.abs(value) + Math.abs(threshold));
 
-        var wordCounts = new ArrayList<Integer>(columnData.length);
-
-        for (CellValue cellValue : columnData) {
+        return Math.abs(value - threshold) <= margin;
+    }
 
-            if (cellValue == null
-                || cellValue.isNull()
-                || cellValue.getType() != CellType.STRING)
-                continue;
+    private void measureExactly() {
 
-            String[] words = cellValue.toString().split("\\s*");
+        double configuredError = approximationError;
+        approximationError = 0;
 
-            wordCounts.add(words.length);
+        try {
+            measureAll();
+        } finally {
+            approximationError = configuredError;
         }
+    }
 
-        int size = wordCounts.size();
+    private void applyBasicMetrics(ColumnProfile profile) {
 
-        if (size == 0)
-            return;
+        completeness = profile.getCompleteness();
+        uniqueness = profile.getUniqueness();
+        uniquenessIgnoringNulls = profile.getUniquenessIgnoringNulls();
+    }
 
-        Collections.sort(wordCounts);
+    private void applyTokenMetrics(ColumnProfile profile) {
+        tokenUniqueness = profile.getTokenUniqueness();
+    }
 
-        this.wordAverage = wordCounts.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(Double.NaN);
+    private void applyWordMetrics(ColumnProfile profile) {
 
-        if (size % 2 == 1) {
-            this.wordMedian = wordCounts.get(size / 2);
-        } else {
-            int middle1 = wordCounts.get(size / 2 - 1);
-            int middle2 = wordCounts.get(size / 2);
-            this.wordMedian = (middle1 + middle2) / 2.0;
-        }
+        // Without STRING values, the previous word metrics are kept
+        if (profile.getLength() > 0 && profile.getStringCount() == 0)
+            return;
+
+        wordAverage = profile.getWordAverage();
+        wordMedian = profile.getWordMedian();
     }
 
     public int getColumnIndex() {
@@ -161,7 +201,7 @@ public class ColumnAnalyzer {
         return header;
     }
 
-    public CellValue[] getColumnData() {
+    public CellColumn getColumnData() {
         return columnData;
     }
 
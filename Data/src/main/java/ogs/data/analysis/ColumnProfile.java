@@ -0,0 +1,376 @@
+package ogs.data.analysis;
+
+import ogs.data.core.CellColumn;
+import ogs.model.core.RegExPatterns;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Profiles a column in a single pass over its rows. The pass only collects the values per type;
+ * every distinct value is then stringified, tokenized and word-counted once and weighted by the
+ * number of rows holding it. Word counts are kept in a histogram, so the median needs no sorting.
+ *
+ * <p>The metrics equal those of measuring every row separately, i.e., tokens are what
+ * {@link String#split(String)} with {@link RegExPatterns#TOKENIZATION} returns for the string of the value,
+ * and the words of a STRING value are counted as {@code split("\\s*")} would count them.
+ *
+ * <p>Columns of at least {@link #MIN_ROWS_TO_APPROXIMATE} rows may be profiled approximately instead:
+ * rows are then processed one by one, and distinct values and tokens are estimated by
+ * {@link HyperLogLog} sketches, so memory does not grow with the column. Completeness, token counts
+ * and word statistics stay exact.
+ */
+class ColumnProfile {
+
+    static final int MIN_ROWS_TO_APPROXIMATE = 1 << 16;
+
+    private static final Pattern TOKENIZATION = Pattern.compile(RegExPatterns.TOKENIZATION);
+
+    // Keep hashes of equal payloads of different types apart
+    private static final long NUMBER_SALT = 0x9E3779B97F4A7C15L;
+    private static final long DATE_SALT = 0xC2B2AE3D27D4EB4FL;
+    private static final long STRING_SALT = 0x165667B19E3779F9L;
+
+    private final int length;
+    private int nullCount = 0;
+    private int uniqueCount = 0;
+
+    private final Set<String> uniqueTokens = new HashSet<>();
+    private int uniqueTokenCount = 0;
+    private int tokenCount = 0;
+
+    private final double relativeError;
+
+    private int stringCount = 0;
+    private long wordCountSum = 0;
+    private int[] wordCountHistogram = new int[16];
+
+    /**
+     * Profiles the column exactly.
+     */
+    ColumnProfile(CellColumn column) {
+        this(column, 0);
+    }
+
+    /**
+     * @param approximationError the relative standard error allowed for the distinct counts of columns
+     *                           of at least {@link #MIN_ROWS_TO_APPROXIMATE} rows, or 0 to count exactly.
+     */
+    ColumnProfile(CellColumn column, double approximationError) {
+
+        length = column.size();
+
+        if (approximationError > 0 && length >= MIN_ROWS_TO_APPROXIMATE) {
+            relativeError = profileApproximately(column, approximationError);
+            return;
+        }
+
+        relativeError = 0;
+        profileExactly(column);
+        uniqueTokenCount = uniqueTokens.size();
+    }
+
+    private void profileExactly(CellColumn column) {
+
+        long[] numbers = new long[length];
+        long[] dates = new long[length];
+        int[] stringCodes = new int[length];
+        int numberCount = 0;
+        int dateCount = 0;
+        int trueCount = 0;
+        int falseCount = 0;
+
+        for (int row = 0; row < length; row++) {
+
+            switch (column.getType(row)) {
+                case NUMERIC -> {
+                    if (column.isDate(row))
+                        dates[dateCount++] = column.getDateTime(row);
+                    else
+                        numbers[numberCount++] = Double.doubleToLongBits(column.getDouble(row));
+                }
+                case BOOLEAN -> {
+                    if (column.getBoolean(row))
+                        trueCount++;
+                    else
+                        falseCount++;
+                }
+                case STRING -> stringCodes[stringCount++] = column.getStringCode(row);
+                default -> nullCount++;
+            }
+        }
+
+        // Equal values of different types never meet, so every type is profiled on its own
+        profileNumbers(numbers, numberCount);
+        profileDates(dates, dateCount);
+        profileBoolean("true", trueCount);
+        profileBoolean("false", falseCount);
+        profileStrings(column, stringCodes);
+    }
+
+    private void profileNumbers(long[] numbers, int count) {
+
+        Arrays.sort(numbers, 0, count);
+
+        for (int start = 0, end; start < count; start = end) {
+            end = endOfRun(numbers, start, count);
+            addTokens(String.valueOf(Double.longBitsToDouble(numbers[start])), end - start);
+            uniqueCount++;
+        }
+    }
+
+    private void profileDates(long[] dates, int count) {
+
+        Arrays.sort(dates, 0, count);
+
+        for (int start = 0, end; start < count; start = end) {
+            end = endOfRun(dates, start, count);
+            addTokens(String.valueOf(new Date(dates[start])), end - start);
+            uniqueCount++;
+        }
+    }
+
+    private void profileBoolean(String value, int count) {
+
+        if (count == 0)
+            return;
+
+        addTokens(value, count);
+        uniqueCount++;
+    }
+
+    private void profileStrings(CellColumn column, int[] stringCodes) {
+
+        Arrays.sort(stringCodes, 0, stringCount);
+
+        for (int start = 0, end = 0; start < stringCount; start = end) {
+
+            while (end < stringCount && stringCodes[end] == stringCodes[start])
+                end++;
+
+            String value = column.getDictionary().decode(stringCodes[start]);
+            int occurrences = end - start;
+
+            addTokens(value, occurrences);
+            addWordCount(countWords(value), occurrences);
+            uniqueCount++;
+        }
+    }
+
+    /**
+     * @return the relative standard error of the estimated distinct counts.
+     */
+    private double profileApproximately(CellColumn column, double approximationError) {
+
+        HyperLogLog values = new HyperLogLog(approximationError);
+        HyperLogLog tokens = new HyperLogLog(approximationError);
+        boolean hasTrue = false;
+        boolean hasFalse = false;
+
+        // Runs of equal strings are tokenized once
+        int previousCode = -1;
+        int previousTokenCount = 0;
+        int previousWordCount = 0;
+
+        for (int row = 0; row < length; row++) {
+
+            switch (column.getType(row)) {
+                case NUMERIC -> {
+                    if (column.isDate(row)) {
+                        long date = column.getDateTime(row);
+                        values.add(HyperLogLog.hash(date ^ DATE_SALT));
+                        tokenCount += addTokenHashes(tokens, String.valueOf(new Date(date)));
+                    } else {
+                        double number = column.getDouble(row);
+                        values.add(HyperLogLog.hash(Double.doubleToLongBits(number) ^ NUMBER_SALT));
+                        tokenCount += addTokenHashes(tokens, String.valueOf(number));
+                    }
+                }
+                case BOOLEAN -> {
+                    boolean value = column.getBoolean(row);
+                    hasTrue |= value;
+                    hasFalse |= !value;
+                    tokenCount += addTokenHashes(tokens, String.valueOf(value));
+                }
+                case STRING -> {
+                    int code = column.getStringCode(row);
+                    if (code != previousCode) {
+                        String value = column.getDictionary().decode(code);
+                        values.add(HyperLogLog.hash(code ^ STRING_SALT));
+                        previousTokenCount = addTokenHashes(tokens, value);
+                        previousWordCount = countWords(value);
+                        previousCode = code;
+                    }
+                    tokenCount += previousTokenCount;
+                    addWordCount(previousWordCount, 1);
+                    stringCount++;
+                }
+                default -> nullCount++;
+            }
+        }
+
+        // An estimate cannot exceed what was counted
+        long estimatedUniqueCount = values.estimate() + (hasTrue ? 1 : 0) + (hasFalse ? 1 : 0);
+        uniqueCount = (int) Math.min(estimatedUniqueCount, length - nullCount);
+        uniqueTokenCount = (int) Math.min(tokens.estimate(), tokenCount);
+
+        return values.getRelativeError();
+    }
+
+    /**
+     * @return the number of tokens of the value.
+     */
+    private static int addTokenHashes(HyperLogLog tokens, String value) {
+
+        String[] valueTokens = TOKENIZATION.split(value);
+
+        for (String token : valueTokens)
+            tokens.add(HyperLogLog.hash(token));
+
+        return valueTokens.length;
+    }
+
+    private static int endOfRun(long[] values, int start, int count) {
+
+        int end = start + 1;
+
+        while (end < count && values[end] == values[start])
+            end++;
+
+        return end;
+    }
+
+    private void addTokens(String value, int occurrences) {
+
+        String[] tokens = TOKENIZATION.split(value);
+
+        uniqueTokens.addAll(Arrays.asList(tokens));
+        tokenCount += tokens.length * occurrences;
+    }
+
+    private void addWordCount(int wordCount, int occurrences) {
+
+        if (wordCount >= wordCountHistogram.length)
+            wordCountHistogram = Arrays.copyOf(wordCountHistogram, Math.max(wordCount + 1, wordCountHistogram.length * 2));
+
+        wordCountHistogram[wordCount] += occurrences;
+        wordCountSum += (long) wordCount * occurrences;
+    }
+
+    /**
+     * @return the length of {@code value.split("\\s*")}, counted without building the array.
+     */
+    static int countWords(String value) {
+
+        int length = value.length();
+        int substringStart = 0;
+        int substringCount = 0;
+        int countUpToLastNonEmpty = 0;
+
+        // Every position starts a match of \s*, which extends over the whitespace that follows
+        for (int matchStart = 0; matchStart <= length; ) {
+
+            int matchEnd = matchStart;
+            while (matchEnd < length && isWhitespace(value.charAt(matchEnd)))
+                matchEnd++;
+
+            // An empty match at the very beginning does not produce a leading empty substring
+            if (matchEnd > 0) {
+                substringCount++;
+                if (matchStart > substringStart)
+                    countUpToLastNonEmpty = substringCount;
+                substringStart = matchEnd;
+            }
+
+            matchStart = matchEnd == matchStart ? matchEnd + 1 : matchEnd;
+        }
+
+        if (substringCount == 0) // Nothing matched, so the value is not split
+            return 1;
+
+        // The remainder, then trailing empty substrings are dropped
+        substringCount++;
+        if (length > substringStart)
+            countUpToLastNonEmpty = substringCount;
+
+        return countUpToLastNonEmpty;
+    }
+
+    /**
+     * Whitespace as matched by {@code \s} without {@link Pattern#UNICODE_CHARACTER_CLASS}.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private int wordCountAtRank(int rank) {
+
+        int wordCount = 0;
+
+        for (int seen = wordCountHistogram[0]; seen <= rank; seen += wordCountHistogram[wordCount])
+            wordCount++;
+
+        return wordCount;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    boolean isApproximate() {
+        return relativeError > 0;
+    }
+
+    /**
+     * @return the relative standard error of the uniqueness metrics, which is 0 if they are exact.
+     */
+    double getRelativeError() {
+        return relativeError;
+    }
+
+    int getStringCount() {
+        return stringCount;
+    }
+
+    double getCompleteness() {
+        return length == 0 ? Double.NaN : 1.0 - (double) nullCount / length;
+    }
+
+    double getUniqueness() {
+        return length == 0 ? Double.NaN : (double) uniqueCount / length;
+    }
+
+    double getUniquenessIgnoringNulls() {
+
+        if (length == 0)
+            return Double.NaN;
+
+        return (length - nullCount) >= 0
+                ? (double) uniqueCount / (length - nullCount)
+                : 0;
+    }
+
+    double getTokenUniqueness() {
+        return length == 0 ? Double.NaN : (double) uniqueTokenCount / tokenCount;
+    }
+
+    double getWordAverage() {
+        return stringCount == 0 ? Double.NaN : (double) wordCountSum / stringCount;
+    }
+
+    double getWordMedian() {
+
+        if (stringCount == 0)
+            return Double.NaN;
+
+        if (stringCount % 2 == 1)
+            return wordCountAtRank(stringCount / 2);
+
+        int middle1 = wordCountAtRank(stringCount / 2 - 1);
+        int middle2 = wordCountAtRank(stringCount / 2);
+        return (middle1 + middle2) / 2.0;
+    }
+}
@@ -0,0 +1,99 @@
+package ogs.data.analysis;
+
+/**
+ * A HyperLogLog sketch estimating the number of distinct 64-bit hashes added to it
+ * in a fixed amount of memory, one byte per register.
+ */
+class HyperLogLog {
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * @param relativeError the desired relative standard error of the estimate. The sketch uses
+     *                      the smallest number of registers reaching it, from 16 up to 65536 (0.4%).
+     */
+    HyperLogLog(double relativeError) {
+
+        // The standard error is 1.04 / sqrt(number of registers)
+        double registersNeeded = Math.pow(1.04 / relativeError, 2);
+        int precisionNeeded = (int) Math.ceil(Math.log(registersNeeded) / Math.log(2));
+
+        precision = Math.clamp(precisionNeeded, MIN_PRECISION, MAX_PRECISION);
+        registers = new byte[1 << precision];
+    }
+
+    /**
+     * @param hash a well-mixed 64-bit hash, e.g., from {@link #hash(long)} or {@link #hash(String)}.
+     */
+    void add(long hash) {
+
+        int index = (int) (hash >>> (64 - precision));
+        // The marker bit bounds the rank if the remaining bits are all zero
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        if (rank > registers[index])
+            registers[index] = (byte) rank;
+    }
+
+    long estimate() {
+
+        int m = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0)
+                zeroRegisters++;
+        }
+
+        double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+
+        double estimate = alpha * m * m / sum;
+
+        // Linear counting is more accurate for small cardinalities
+        if (estimate <= 2.5 * m && zeroRegisters > 0)
+            estimate = m * Math.log((double) m / zeroRegisters);
+
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return the relative standard error of the estimate.
+     */
+    double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * The finalizer of MurmurHash3, which spreads every input bit over the whole hash.
+     */
+    static long hash(long value) {
+
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    static long hash(String value) {
+
+        long hash = 1125899906842597L;
+
+        for (int i = 0; i < value.length(); i++)
+            hash = 31 * hash + value.charAt(i);
+
+        return hash(hash);
+    }
+}
@@ -1,16 +1,21 @@
 package ogs.data.analysis;
 
+import ogs.data.core.HSSFEventWorkbookDataExtractor;
+import ogs.data.core.UsermodelWorkbookDataExtractor;
 import ogs.data.core.WorkbookDataExtractor;
 import ogs.data.core.WorkbookManager;
+import ogs.data.core.XSSFStreamingWorkbookDataExtractor;
 import ogs.model.core.Configuration;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
+import java.io.Closeable;
 import java.io.IOException;
 
 public class OntologyDataProvider {
 
     private final Configuration config;
     private WorkbookManager workbookManager;
+    private WorkbookDataExtractor workbookDataExtractor;
     private WorkbookAnalyzer workbookAnalyzer;
 
     public OntologyDataProvider(Configuration config) {
@@ -18,9 +23,20 @@ public class OntologyDataProvider {
     }
 
     public void initialize() throws IOException, InvalidFormatException {
-        workbookManager = new WorkbookManager(config.getSourceFilePath());
-        WorkbookDataExtractor workbookDataExtractor = new WorkbookDataExtractor(workbookManager.getWorkbook());
+
+        String sourceFilePath = config.getSourceFilePath();
+
+        if (config.isStreamingExtraction()) {
+            workbookDataExtractor = sourceFilePath.endsWith(".xls")
+                    ? new HSSFEventWorkbookDataExtractor(sourceFilePath)
+                    : new XSSFStreamingWorkbookDataExtractor(sourceFilePath);
+        } else {
+            workbookManager = new WorkbookManager(sourceFilePath);
+            workbookDataExtractor = new UsermodelWorkbookDataExtractor(workbookManager.getWorkbook());
+        }
+
         workbookAnalyzer = new WorkbookAnalyzer(workbookDataExtractor);
+        workbookAnalyzer.setApproximationError(config.getApproximateUniquenessError());
     }
 
     public void extractData() {
@@ -32,7 +48,10 @@ public class OntologyDataProvider {
 
         var sheetId = config.getSheetId();
         if (sheetId == -411) { // Process all sheets
-            workbookAnalyzer.analyzeAllSheets(config.getKeywords(), config.getHierarchyLevelIndicator());
+            if (config.isParallelSheetAnalysis())
+                workbookAnalyzer.analyzeAllSheetsInParallel(config.getKeywords(), config.getHierarchyLevelIndicator());
+            else
+                workbookAnalyzer.analyzeAllSheets(config.getKeywords(), config.getHierarchyLevelIndicator());
         } else { // Process the specified sheet or active sheet by default
             workbookAnalyzer.analyzeSheet(config.getKeywords(), config.getHierarchyLevelIndicator(), sheetId);
         }
@@ -40,7 +59,9 @@ public class OntologyDataProvider {
 
     public void close() throws IOException {
         if (workbookManager != null) workbookManager.close();
+        if (workbookDataExtractor instanceof Closeable closeable) closeable.close();
         workbookManager = null;
+        workbookDataExtractor = null;
     }
 
     public WorkbookAnalyzer getWorkbookAnalyzer() {
@@ -1,7 +1,10 @@
 package ogs.data.analysis;
 
+import ogs.data.core.CellColumn;
 import ogs.data.core.CellData;
+import ogs.data.core.CellRow;
 import ogs.data.core.CellValue;
+import ogs.data.core.ModelChangeEvent;
 import ogs.data.core.ModelChangeListener;
 import ogs.data.core.SheetDataExtractor;
 import ogs.model.core.AnalysisKeywordDictionary;
@@ -10,13 +13,19 @@ import ogs.model.core.TableAnalysisConcept;
 import org.apache.poi.ss.usermodel.CellType;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static ogs.model.core.TableAnalysisConcept.*;
 
 public class SheetAnalyzer implements ModelChangeListener {
 
+    // Stale columns holding fewer cells in total are measured sequentially
+    private static final long PARALLEL_MEASUREMENT_THRESHOLD = 100_000;
+
     // Core
     private Queue<Runnable> analysisSteps;
     private final SheetDataExtractor dataExtractor;
@@ -24,16 +33,18 @@ public class SheetAnalyzer implements ModelChangeListener {
     private final AnalysisKeywordDictionary keywords;
     private final String hierarchyLevelIndicator;
     private CellData cellData;
-    private boolean modelIsUpToDate = false;
+    private TokenIndex tokenIndex;
+    private ForkJoinPool measurementPool = null; // The common pool, if not set
+    private double approximationError = 0; // Exact
 
     // Analysis results
     private String sheetName;
     /** Consider making headerRow String[]. In {@code this::extractHeaderRow};
-     You can safely use {@code CellValue::toString}
+     You can safely use {@code CellRow::toString}
      or explicitly {@code CellValue::getString},
      relying on {@code this::defineHeaderRow} to find STRING-only row.
      */
-    private CellValue[] headerRow;
+    private CellRow headerRow;
     private ColumnAnalyzer[] columns;
 
     public SheetAnalyzer(SheetDataExtractor dataExtractor,
@@ -59,19 +70,17 @@ public class SheetAnalyzer implements ModelChangeListener {
         cellData = new CellData(rowValues);
 
         // Remove null/blank columns
-        CellValue[][] columnValues = cellData.getColumnValues();
-        columnValues = dataTransformer.filterEmptyArrays(columnValues);
-        cellData.setColumnValues(columnValues);
+        dataTransformer.filterEmptyColumns(cellData);
 
         // Remove unwanted characters
         String cleansingPattern = RegExPatterns.getDataCleansingPattern();
         if (cleansingPattern != null && !cleansingPattern.isEmpty()) {
-            rowValues = dataTransformer.cleanseData(cellData.getRowValues(), cleansingPattern);
-            cellData.setRowValues(rowValues);
+            dataTransformer.cleanseData(cellData, cleansingPattern);
         }
 
-        initializeColumnsArray(columnValues.length);
+        initializeColumnsArray(cellData.getNumberOfColumns());
 
+        tokenIndex = new TokenIndex(cellData);
         cellData.addModelChangeListener(this);
 
         analysisSteps = new LinkedList<>(
@@ -121,25 +130,22 @@ public class SheetAnalyzer implements ModelChangeListener {
 
     private void ensureHeaderRowIsTheFirst() {
 
-        CellValue[][] rowValues = cellData.getRowValues();
-
         int headerRowId = defineHeaderRowId();
-        headerRow = rowValues[headerRowId];
 
         if (headerRowId > 0) {
-            rowValues = dataTransformer.removeFirstNSubArrays(rowValues, headerRowId);
-            cellData.setRowValues(rowValues);
+            dataTransformer.removeFirstNRows(cellData, headerRowId);
         }
+
+        headerRow = cellData.getRow(0);
     }
 
     private void analyzeHeaderRowForKeywords() {
 
-        for (int i = 0; i < headerRow.length; i++) {
+        for (int i = 0; i < headerRow.size(); i++) {
 
             TableAnalysisConcept concept;
             StringBuilder responseBuilder = new StringBuilder(10);
-            CellValue header = headerRow[i];
-            responseBuilder.append(header);
+            responseBuilder.append(headerRow.toString(i));
             concept = keywords.tryMatch(responseBuilder);
 
             if (concept == null)
@@ -160,21 +166,24 @@ public class SheetAnalyzer implements ModelChangeListener {
         Pattern identifierPattern = Pattern.compile(
                 "^(\\p{L}+\\p{N}+|\\p{N}+(\\.\\p{N}+)*\\.?|\\p{N}+\\)|\\p{N}+\\.[ \\p{L}\\p{N}]*)$");
 
+        // A truly unique column is always estimated within the error margin of 1.0 and thus measured exactly:
+        // approximation only saves memory here for the columns that are clearly not unique
         ColumnAnalyzer[] fullyUniqueColumnsIgnoringNullsUndefined = Arrays.stream(columns)
-                .filter(column -> column.getUniquenessIgnoringNulls() >= 1.0
-                        && !column.isDefined())
+                .filter(column -> !column.isDefined()
+                        && column.metricIsAtLeast(ColumnAnalyzer::getUniquenessIgnoringNulls, 1.0))
                 .toArray(ColumnAnalyzer[]::new);
 
         for (ColumnAnalyzer column : fullyUniqueColumnsIgnoringNullsUndefined) {
 
             boolean matches = false;
+            CellColumn columnData = column.getColumnData();
 
-            for (CellValue cellValue : column.getColumnData()) {
+            for (int row = 0; row < columnData.size(); row++) {
 
-                if (cellValue == null || cellValue.isNull())
+                if (columnData.isNull(row))
                     continue;
 
-                Matcher matcher = identifierPattern.matcher(cellValue.toString());
+                Matcher matcher = identifierPattern.matcher(columnData.toString(row));
                 if (matcher.matches()) {
                     matches = true;
                 } else {
@@ -203,20 +212,21 @@ public class SheetAnalyzer implements ModelChangeListener {
         final double uniquenessThreshold = 0.9;
 
         ColumnAnalyzer[] highlyUniqueColumnsIgnoringNullsUndefined = Arrays.stream(columns)
-                .filter(column -> column.getUniquenessIgnoringNulls() >= uniquenessThreshold
-                        && !column.isDefined())
+                .filter(column -> !column.isDefined()
+                        && column.metricIsAtLeast(ColumnAnalyzer::getUniquenessIgnoringNulls, uniquenessThreshold))
                 .toArray(ColumnAnalyzer[]::new);
 
         for (ColumnAnalyzer column : highlyUniqueColumnsIgnoringNullsUndefined) {
 
             boolean matches = false;
+            CellColumn columnData = column.getColumnData();
 
-            for (CellValue cellValue : column.getColumnData()) {
+            for (int row = 0; row < columnData.size(); row++) {
 
-                if (cellValue == null || cellValue.isNull())
+                if (columnData.isNull(row))
                     continue;
 
-                if (cellValue.getType() == CellType.STRING) {
+                if (columnData.getType(row) == CellType.STRING) {
                     matches = true;
                 } else {
                     matches = false;
@@ -246,9 +256,7 @@ public class SheetAnalyzer implements ModelChangeListener {
         if (pivotColumn == null)
             return;
 
-        CellValue[][] rowValues = cellData.getRowValues();
-        rowValues = dataTransformer.collapseSpannedSubArrays(rowValues, pivotColumn.getColumnIndex());
-        cellData.setRowValues(rowValues);
+        dataTransformer.collapseSpannedRows(cellData, pivotColumn.getColumnIndex());
     }
 
     // Headers of both hierarchies and columns can also be checked
@@ -262,43 +270,29 @@ public class SheetAnalyzer implements ModelChangeListener {
 
             if (classHierarchyColumn != null) {
 
-                String[] flatHierarchyValues = Arrays.stream(
-                                classHierarchyColumn.getColumnData())
-                        .filter(colData -> colData != null && !colData.isNull())
-                        .map(colData -> colData.toString()
-                                .replaceAll(hierarchyLevelIndicator, "")
-                                .strip())
-                        .toArray(String[]::new);
+                Map<String, Integer> flatHierarchyValueCounts =
+                        TokenIndex.countValues(getFlatHierarchyValues(classHierarchyColumn));
 
                 for (var column : columns) {
 
                     if (column.isDefined())
                         continue;
 
-                    int matchCount = 0;
-
-                    for (var cell : column.getColumnData()) {
-
-                        if (cell.getType() != CellType.STRING)
-                            break;
-
-                        var tokens = cell.getTokenizedValues();
-
-                        for (String flatHierarchyValue : flatHierarchyValues) {
-                            if (tokens.contains(flatHierarchyValue))
-                                if (++matchCount >= matchCountThreshold) {
-                                    column.setDefinition(ClassColumn);
-                                    column.setReason(String.format(
-                                            "The tokenized values of the column contain at least %d matches of " +
-                                                    "the predefined class hierarchy column '%s' with index %d." +
-                                                    "\nThe tokenization pattern used is: %s",
-                                            matchCountThreshold,
-                                            classHierarchyColumn.getHeader(),
-                                            classHierarchyColumn.getColumnIndex() + 1,
-                                            RegExPatterns.TOKENIZATION
-                                    ));
-                                }
-                        }
+                    // Every row up to the first non-STRING one counts each hierarchy value among its tokens
+                    long matchCount = tokenIndex.getColumnTokens(column.getColumnIndex())
+                            .countLeadingRowMatches(flatHierarchyValueCounts);
+
+                    if (matchCount >= matchCountThreshold) {
+                        column.setDefinition(ClassColumn);
+                        column.setReason(String.format(
+                                "The tokenized values of the column contain at least %d matches of " +
+                                        "the predefined class hierarchy column '%s' with index %d." +
+                                        "\nThe tokenization pattern used is: %s",
+                                matchCountThreshold,
+                                classHierarchyColumn.getHeader(),
+                                classHierarchyColumn.getColumnIndex() + 1,
+                                RegExPatterns.TOKENIZATION
+                        ));
                     }
                 }
             }
@@ -325,12 +319,7 @@ public class SheetAnalyzer implements ModelChangeListener {
 
         for (ColumnAnalyzer hierarchyColumn : getColumnsDefinedAs(concept)) {
 
-            String[] flatHierarchyValues = Arrays.stream(hierarchyColumn.getColumnData())
-                    .filter(colData -> colData != null && !colData.isNull())
-                    .map(colData -> colData.toString()
-                            .replaceAll(hierarchyLevelIndicator, "")
-                            .strip())
-                    .toArray(String[]::new);
+            String[] flatHierarchyValues = getFlatHierarchyValues(hierarchyColumn);
 
             for (var column : columns) {
                 for (String flatHierarchyValue : flatHierarchyValues) {
@@ -348,6 +337,18 @@ public class SheetAnalyzer implements ModelChangeListener {
         }
     }
 
+    private String[] getFlatHierarchyValues(ColumnAnalyzer hierarchyColumn) {
+
+        CellColumn columnData = hierarchyColumn.getColumnData();
+
+        return IntStream.range(0, columnData.size())
+                .filter(row -> !columnData.isNull(row))
+                .mapToObj(row -> columnData.toString(row)
+                        .replaceAll(hierarchyLevelIndicator, "")
+                        .strip())
+                .toArray(String[]::new);
+    }
+
     private void defineObjectPropertyColumns() {
 
         ensureModelIsUpToDate();
@@ -361,42 +362,30 @@ public class SheetAnalyzer implements ModelChangeListener {
 
         if (identifierColumn == null) return;
 
-        List<String> identifierColumnValues = Arrays.stream(identifierColumn.getColumnData())
-                .filter(cellValue -> cellValue != null && !cellValue.isNull())
-                .map(cellValue -> cellValue.toString().strip())
-                .toList();
+        CellColumn identifierColumnData = identifierColumn.getColumnData();
+
+        Set<String> identifierColumnValues = IntStream.range(0, identifierColumnData.size())
+                .filter(row -> !identifierColumnData.isNull(row))
+                .mapToObj(row -> identifierColumnData.toString(row).strip())
+                .collect(Collectors.toSet());
 
         for (var column : columns) {
 
             if (column.isDefined()) continue;
 
-            int columnSize = column.getColumnData().length;
-            int matchCount = 0;
-            int matchCountThreshold = columnSize / 2;
-
-            for (CellValue cellValue : column.getColumnData()) {
-
-                if (cellValue == null || cellValue.isNull()) continue;
+            int matchCountThreshold = column.getColumnData().size() / 2;
+            TokenIndex.ColumnTokens columnTokens = tokenIndex.getColumnTokens(column.getColumnIndex());
 
-                List<String> tokens = cellValue.getTokenizedValues().stream()
-                        .map(String::strip)
-                        .toList();
-
-                matchCount += (int) tokens.stream()
-                        .filter(identifierColumnValues::contains)
-                        .count();
-
-                // Break early if threshold is reached
-                if (matchCount >= matchCountThreshold) {
-                    column.setDefinition(ObjectPropertyColumn);
-                    column.setReason(String.format(
-                            "At least half of the tokenized values of the column match values from %s '%s' with index %d.",
-                            identifierColumn.getDefinition().getDisplayString(),
-                            identifierColumn.getHeader(),
-                            identifierColumn.getColumnIndex()
-                    ));
-                    break;
-                }
+            // The threshold is checked after each non-null row
+            if (columnTokens.hasNonNullRow()
+                && columnTokens.countMatches(identifierColumnValues) >= matchCountThreshold) {
+                column.setDefinition(ObjectPropertyColumn);
+                column.setReason(String.format(
+                        "At least half of the tokenized values of the column match values from %s '%s' with index %d.",
+                        identifierColumn.getDefinition().getDisplayString(),
+                        identifierColumn.getHeader(),
+                        identifierColumn.getColumnIndex()
+                ));
             }
         }
     }
@@ -409,13 +398,11 @@ public class SheetAnalyzer implements ModelChangeListener {
 
         Integer[] extremelyNonUniqueUndefinedColumnIDs = Arrays.stream(columns)
                 .filter(column -> !column.isDefined()
-                        && column.getUniqueness() <= uniquenessThresholdToBecomeBoolean)
+                        && column.metricIsAtMost(ColumnAnalyzer::getUniqueness, uniquenessThresholdToBecomeBoolean))
                 .map(ColumnAnalyzer::getColumnIndex)
                 .toArray(Integer[]::new);
 
-        CellValue[][] columnValues = cellData.getColumnValues();
-        columnValues = dataTransformer.tryMapSubArraysToBoolean(columnValues, extremelyNonUniqueUndefinedColumnIDs);
-        cellData.setColumnValues(columnValues);
+        dataTransformer.tryMapColumnsToBoolean(cellData, extremelyNonUniqueUndefinedColumnIDs);
     }
 
     private void defineClassColumns() {
@@ -427,8 +414,8 @@ public class SheetAnalyzer implements ModelChangeListener {
 
         ColumnAnalyzer[] highlyCompleteUndefinedColumnsWithLowTokenUniqueness = Arrays.stream(columns)
                 .filter(column -> !column.isDefined()
-                        && column.getTokenUniqueness() <= column.getUniquenessIgnoringNulls()
-                        && column.getTokenUniqueness() <= tokenUniquenessThreshold
+                        && column.metricIsAtMost(ColumnAnalyzer::getTokenUniqueness, ColumnAnalyzer::getUniquenessIgnoringNulls)
+                        && column.metricIsAtMost(ColumnAnalyzer::getTokenUniqueness, tokenUniquenessThreshold)
                         && column.getCompleteness() >= completenessThreshold)
                 .toArray(ColumnAnalyzer[]::new);
 
@@ -504,27 +491,54 @@ public class SheetAnalyzer implements ModelChangeListener {
     }
 
     @Override
-    public void onModelChanged() {
-        modelIsUpToDate = false;
+    public void onModelChanged(ModelChangeEvent event) {
+
+        BitSet changedColumns = event.getChangedColumns();
+
+        for (int columnId = changedColumns.nextSetBit(0);
+             columnId >= 0 && columnId < columns.length;
+             columnId = changedColumns.nextSetBit(columnId + 1)) {
+            columns[columnId].invalidateMetrics();
+        }
+
+        tokenIndex.invalidate(changedColumns);
     }
 
+    /**
+     * Re-measures the columns whose metrics were invalidated by a change of the model, and only those.
+     * Columns are independent of each other, so large sheets are measured in parallel
+     * with the same results.
+     */
     private void ensureModelIsUpToDate() {
 
-        if (modelIsUpToDate)
-            return;
-
         int actualNumberOfColumns = cellData.getNumberOfColumns();
 
         if (actualNumberOfColumns > columns.length)
             initializeColumnsArray(actualNumberOfColumns);
 
+        List<ColumnAnalyzer> staleColumns = new ArrayList<>();
+
         for (int columnId = 0; columnId < actualNumberOfColumns; columnId++) {
 
-            columns[columnId].update(cellData.getColumn(columnId), columnId);
-            columns[columnId].measureAll();
+            if (columns[columnId].metricsAreUpToDate())
+                continue;
+
+            columns[columnId].update(
+                    cellData.getHeader(columnId),
+                    cellData.getColumnWithoutHeader(columnId),
+                    columnId);
+            staleColumns.add(columns[columnId]);
+        }
+
+        long staleCellCount = (long) staleColumns.size() * cellData.getNumberOfRows();
+
+        if (staleColumns.size() < 2 || staleCellCount < PARALLEL_MEASUREMENT_THRESHOLD) {
+            staleColumns.forEach(ColumnAnalyzer::measureAll);
+            return;
         }
 
-        modelIsUpToDate = true;
+        ForkJoinPool pool = Objects.requireNonNullElseGet(measurementPool, ForkJoinPool::commonPool);
+        pool.submit(() -> staleColumns.parallelStream().forEach(ColumnAnalyzer::measureAll)).join();
     }
 
     private void initializeColumnsArray(int newLength) {
@@ -532,7 +546,7 @@ public class SheetAnalyzer implements ModelChangeListener {
         if (columns == null) {
             columns = new ColumnAnalyzer[newLength];
             for (int i = 0; i < newLength; i++) {
-                columns[i] = new ColumnAnalyzer();
+                columns[i] = createColumnAnalyzer();
             }
             return;
         }
@@ -540,11 +554,18 @@ public class SheetAnalyzer implements ModelChangeListener {
         ColumnAnalyzer[] newColumns = Arrays.copyOf(columns, newLength);
 
         for (int i = columns.length; i < newLength; i++)
-            newColumns[i] = new ColumnAnalyzer();
+            newColumns[i] = createColumnAnalyzer();
 
         columns = newColumns;
     }
 
+    private ColumnAnalyzer createColumnAnalyzer() {
+
+        var column = new ColumnAnalyzer();
+        column.setApproximationError(approximationError);
+        return column;
+    }
+
     private boolean anyColumnIsDefinedAs(TableAnalysisConcept definition) {
         return Arrays.stream(getColumnAnalyzers())
                 .anyMatch(column ->
@@ -581,4 +602,25 @@ public class SheetAnalyzer implements ModelChangeListener {
     public String getHierarchyLevelIndicator() {
         return hierarchyLevelIndicator;
     }
+
+    /**
+     * @param measurementPool the pool to measure large sheets in, or {@code null} for the common pool.
+     */
+    public void setMeasurementPool(ForkJoinPool measurementPool) {
+        this.measurementPool = measurementPool;
+    }
+
+    /**
+     * Lets large columns estimate their uniqueness metrics, see {@link ColumnAnalyzer#setApproximationError}.
+     * Threshold decisions that an estimate cannot settle are made on exact metrics; the others are right
+     * with high probability only.
+     */
+    public void setApproximationError(double approximationError) {
+
+        this.approximationError = approximationError;
+
+        if (columns != null)
+            for (ColumnAnalyzer column : columns)
+                column.setApproximationError(approximationError);
+    }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package ogs.data.analysis;
 
+import ogs.data.core.CellColumn;
+import ogs.data.core.CellData;
 import ogs.data.core.CellValue;
 import org.apache.poi.ss.usermodel.CellType;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.BitSet;
+import java.util.regex.Pattern;
 
 public class SheetDataTransformer {
 
@@ -32,101 +34,166 @@ public class SheetDataTransformer {
                 .toArray(CellValue[][]::new);
     }
 
+    /**
+     * Removes the columns that contain only {@code _NONE} values.
+     */
+    public void filterEmptyColumns(CellData cellData) {
 
+        int numberOfColumns = cellData.getNumberOfColumns();
+        BitSet significantColumns = new BitSet(numberOfColumns);
 
-    public CellValue[][] removeFirstNSubArrays(CellValue[][] cellData, int numberToRemove) {
+        for (int columnId = 0; columnId < numberOfColumns; columnId++) {
+            if (!isEmpty(cellData.getColumn(columnId)))
+                significantColumns.set(columnId);
+        }
 
-        if (cellData == null)
-            return null;
+        if (significantColumns.cardinality() < numberOfColumns)
+            cellData.retainColumns(significantColumns);
+    }
 
-        return Arrays.stream(cellData)
-                .skip(numberToRemove)
-                .toArray(CellValue[][]::new);
+    /**
+     * Removes the rows that contain only {@code _NONE} values.
+     */
+    public void filterEmptyRows(CellData cellData) {
+
+        int numberOfRows = cellData.getNumberOfRows();
+        BitSet significantRows = new BitSet(numberOfRows);
+
+        for (int columnId = 0; columnId < cellData.getNumberOfColumns(); columnId++) {
+
+            CellColumn column = cellData.getColumn(columnId);
+
+            for (int rowId = 0; rowId < numberOfRows; rowId++) {
+                if (!column.isNull(rowId))
+                    significantRows.set(rowId);
+            }
+        }
+
+        if (significantRows.cardinality() < numberOfRows)
+            cellData.retainRows(significantRows);
     }
 
-    public CellValue[][] collapseSpannedSubArrays(CellValue[][] cellData, int pivotIndex) {
+    public void removeFirstNRows(CellData cellData, int numberToRemove) {
+
+        if (numberToRemove <= 0)
+            return;
 
-        if (cellData == null
-            || cellData.length <= 1
+        int numberOfRows = cellData.getNumberOfRows();
+        BitSet rowsToKeep = new BitSet(numberOfRows);
+        rowsToKeep.set(Math.min(numberToRemove, numberOfRows), numberOfRows);
+
+        cellData.retainRows(rowsToKeep);
+    }
+
+    /**
+     * Merges every row whose pivot value is {@code _NONE} into the closest row above it
+     * that has one, concatenating the values column by column, and removes the merged rows.
+     */
+    public void collapseSpannedRows(CellData cellData, int pivotIndex) {
+
+        if (cellData.getNumberOfRows() <= 1
             || pivotIndex < 0
-            || pivotIndex > cellData.length)
-            return cellData;
+            || pivotIndex >= cellData.getNumberOfColumns())
+            return;
 
-        if (Arrays.stream(cellData[0])
-                .allMatch(SheetDataTransformer::isEffectivelyNull))
-            cellData = filterEmptyArrays(cellData);
+        if (isEmptyRow(cellData, 0))
+            filterEmptyRows(cellData);
 
-        List<CellValue[]> mergedData = new ArrayList<>(cellData.length);
-        CellValue[] currentBaseSubArray = cellData[0];
+        int numberOfRows = cellData.getNumberOfRows();
+        CellColumn pivotColumn = cellData.getColumn(pivotIndex);
+        BitSet baseRows = new BitSet(numberOfRows);
+        baseRows.set(0);
 
-        for (int subArrayId = 0; subArrayId < cellData.length; subArrayId++) {
+        for (int rowId = 1; rowId < numberOfRows; rowId++) {
+            if (!pivotColumn.isNull(rowId))
+                baseRows.set(rowId);
+        }
 
-            var pivotValue = cellData[subArrayId][pivotIndex];
+        if (baseRows.cardinality() == numberOfRows)
+            return;
 
-            if (isSignificant(pivotValue) || subArrayId == 0) {
-                currentBaseSubArray = cellData[subArrayId];
-                mergedData.add(currentBaseSubArray);
-                continue;
-            }
+        for (int columnId = 0; columnId < cellData.getNumberOfColumns(); columnId++) {
 
-            for (int elementId = 0; elementId < cellData[subArrayId].length; elementId++) {
+            cellData.updateColumn(columnId, column -> {
 
-                var cellValue = cellData[subArrayId][elementId];
+                int baseRowId = 0;
 
-                if (isEffectivelyNull(cellValue))
-                    continue;
+                for (int rowId = 1; rowId < numberOfRows; rowId++) {
 
-                currentBaseSubArray[elementId] = CellValue.concatenate(currentBaseSubArray[elementId], cellValue);
-            }
+                    if (baseRows.get(rowId)) {
+                        baseRowId = rowId;
+                        continue;
+                    }
+
+                    if (column.isNull(rowId))
+                        continue;
+
+                    column.set(baseRowId, CellValue.concatenate(column.get(baseRowId), column.get(rowId)));
+                }
+            });
         }
 
-        return mergedData.toArray(CellValue[][]::new);
+        cellData.retainRows(baseRows);
     }
 
-    public CellValue[][] cleanseData(CellValue[][] cellData, String cleansingPattern) {
+    public void cleanseData(CellData cellData, String cleansingPattern) {
 
-        if (cellData == null || cellData.length == 0) {
-            return cellData;
-        }
+        Pattern pattern = Pattern.compile(cleansingPattern);
+
+        for (int columnId = 0; columnId < cellData.getNumberOfColumns(); columnId++) {
 
-        for (int i = 0; i < cellData.length; i++) {
-            for (int j = 0; j < cellData[i].length; j++) {
+            cellData.updateColumn(columnId, column -> {
 
-                CellValue cellValue = cellData[i][j];
+                for (int rowId = 0; rowId < column.size(); rowId++) {
 
-                if (cellValue != null && cellValue.getType() == CellType.STRING) {
+                    if (column.getType(rowId) == CellType.STRING) {
 
-                    String cleansedValue = cellValue.getString().replaceAll(cleansingPattern, "");
-                    cellData[i][j] = new CellValue(cleansedValue);
+                        String cleansedValue = pattern.matcher(column.getString(rowId)).replaceAll("");
+                        column.setString(rowId, cleansedValue);
+                    }
                 }
-            }
+            });
         }
-
-        return cellData;
     }
 
-    public CellValue[][] tryMapSubArraysToBoolean(CellValue[][] cellData, Integer[] targetIDs) {
+    public void tryMapColumnsToBoolean(CellData cellData, Integer[] targetIDs) {
 
-        if (targetIDs == null
-            || cellData == null)
-            return cellData;
+        if (targetIDs == null)
+            return;
 
-        for (int subArrayId : targetIDs) {
+        for (int columnId : targetIDs) {
 
-            for (int elementId = 0; elementId < cellData[subArrayId].length; elementId++) {
+            cellData.updateColumn(columnId, column -> {
 
-                Boolean mappedValue = CellValueToBooleanMapper.tryMap(cellData[subArrayId][elementId]);
+                for (int rowId = 0; rowId < column.size(); rowId++) {
 
-                if (mappedValue != null)
-                    cellData[subArrayId][elementId] = new CellValue(mappedValue);
-            }
+                    Boolean mappedValue = CellValueToBooleanMapper.tryMap(column, rowId);
+
+                    if (mappedValue != null)
+                        column.setBoolean(rowId, mappedValue);
+                }
+            });
+        }
+    }
+
+    private static boolean isEmpty(CellColumn column) {
+
+        for (int rowId = 0; rowId < column.size(); rowId++) {
+            if (!column.isNull(rowId))
+                return false;
         }
 
-        return cellData;
+        return true;
     }
 
-    private static boolean isEffectivelyNull(CellValue cellValue) {
-        return cellValue == null || cellValue.isNull();
+    private static boolean isEmptyRow(CellData cellData, int rowId) {
+
+        for (int columnId = 0; columnId < cellData.getNumberOfColumns(); columnId++) {
+            if (!cellData.getColumn(columnId).isNull(rowId))
+                return false;
+        }
+
+        return true;
     }
 
     private static boolean isSignificant(CellValue cellValue) {
@@ -0,0 +1,149 @@
+package ogs.data.analysis;
+
+import ogs.data.core.CellColumn;
+import ogs.data.core.CellData;
+import ogs.model.core.RegExPatterns;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed index of the tokens of the STRING values of a sheet (without the header row), as
+ * {@link CellColumn#getTokenizedValues(int)} returns them. The tokens of a column are indexed on first
+ * use, tokenizing every distinct string of the column once, and are kept until the column changes.
+ * Matching a column against a set of values then takes time linear in the smaller of the two.
+ */
+class TokenIndex {
+
+    private final CellData cellData;
+    private final Map<Integer, ColumnTokens> columnTokens = new HashMap<>();
+
+    TokenIndex(CellData cellData) {
+        this.cellData = cellData;
+    }
+
+    ColumnTokens getColumnTokens(int columnId) {
+        return columnTokens.computeIfAbsent(columnId,
+                id -> new ColumnTokens(cellData.getColumnWithoutHeader(id)));
+    }
+
+    void invalidate(BitSet changedColumns) {
+        columnTokens.keySet().removeIf(changedColumns::get);
+    }
+
+    /**
+     * @return the number of times every value occurs in {@code values}.
+     */
+    static Map<String, Integer> countValues(String[] values) {
+
+        Map<String, Integer> valueCounts = new HashMap<>();
+
+        for (String value : values)
+            valueCounts.merge(value, 1, Integer::sum);
+
+        return valueCounts;
+    }
+
+    /**
+     * The tokens of a single column.
+     */
+    static class ColumnTokens {
+
+        // How often each token occurs in all rows
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        // How many rows contain each token, up to the first row that is not a STRING
+        private final Map<String, Integer> leadingStringRows = new HashMap<>();
+        private boolean hasNonNullRow = false;
+
+        private ColumnTokens(CellColumn columnData) {
+
+            // String code -> {occurrences in all rows, occurrences in the leading STRING rows}
+            Map<Integer, int[]> codeCounts = new HashMap<>();
+            boolean inLeadingStringRows = true;
+
+            for (int row = 0; row < columnData.size(); row++) {
+
+                CellType type = columnData.getType(row);
+
+                if (type != CellType._NONE)
+                    hasNonNullRow = true;
+
+                if (type != CellType.STRING) {
+                    inLeadingStringRows = false;
+                    continue;
+                }
+
+                int[] counts = codeCounts.computeIfAbsent(columnData.getStringCode(row), code -> new int[2]);
+                counts[0]++;
+                if (inLeadingStringRows)
+                    counts[1]++;
+            }
+
+            for (Map.Entry<Integer, int[]> entry : codeCounts.entrySet()) {
+
+                int[] counts = entry.getValue();
+                Set<String> distinctTokens = new HashSet<>();
+
+                for (String token : columnData.getDictionary().decode(entry.getKey())
+                        .split(RegExPatterns.TOKENIZATION)) {
+
+                    token = token.strip();
+                    occurrences.merge(token, counts[0], Integer::sum);
+                    distinctTokens.add(token);
+                }
+
+                if (counts[1] > 0)
+                    for (String token : distinctTokens)
+                        leadingStringRows.merge(token, counts[1], Integer::sum);
+            }
+        }
+
+        boolean hasNonNullRow() {
+            return hasNonNullRow;
+        }
+
+        /**
+         * @return how many tokens of all rows are among {@code values}, counting every occurrence of a token.
+         */
+        long countMatches(Set<String> values) {
+
+            long matchCount = 0;
+
+            if (values.size() < occurrences.size()) {
+                for (String value : values)
+                    matchCount += occurrences.getOrDefault(value, 0);
+            } else {
+                for (Map.Entry<String, Integer> entry : occurrences.entrySet())
+                    if (values.contains(entry.getKey()))
+                        matchCount += entry.getValue();
+            }
+
+            return matchCount;
+        }
+
+        /**
+         * Counts, for every row up to the first row that is not a STRING, how many of {@code valueCounts}
+         * (with repetitions) are among the tokens of the row.
+         *
+         * @param valueCounts the number of times each value is repeated.
+         */
+        long countLeadingRowMatches(Map<String, Integer> valueCounts) {
+
+            long matchCount = 0;
+
+            if (valueCounts.size() < leadingStringRows.size()) {
+                for (Map.Entry<String, Integer> entry : valueCounts.entrySet())
+                    matchCount += (long) entry.getValue() * leadingStringRows.getOrDefault(entry.getKey(), 0);
+            } else {
+                for (Map.Entry<String, Integer> entry : leadingStringRows.entrySet())
+                    matchCount += (long) entry.getValue() * valueCounts.getOrDefault(entry.getKey(), 0);
+            }
+
+            return matchCount;
+        }
+    }
+}
@@ -3,10 +3,13 @@ package ogs.data.analysis;
 import ogs.data.core.SheetDataExtractor;
 import ogs.data.core.WorkbookDataExtractor;
 import ogs.model.core.AnalysisKeywordDictionary;
-import org.apache.poi.ss.usermodel.Sheet;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class WorkbookAnalyzer {
 
@@ -18,6 +21,7 @@ public class WorkbookAnalyzer {
     private String keywords;
     private String langTag;
     private final List<SheetAnalyzer> sheetAnalyzers;
+    private double approximationError = 0; // Exact
 
     public WorkbookAnalyzer(WorkbookDataExtractor workbookDataExtractor) {
         this.workbookDataExtractor = workbookDataExtractor;
@@ -37,10 +41,21 @@ public class WorkbookAnalyzer {
 
     public void analyzeSheet(AnalysisKeywordDictionary analysisKeywords, String hierarchyLevelIndicator, int sheetId) {
 
-        Sheet sheet = workbookDataExtractor.getSheetAtOrActive1Based(sheetId);
+        analyzeSheet(analysisKeywords, hierarchyLevelIndicator,
+                workbookDataExtractor.getSheetDataExtractorAtOrActive1Based(sheetId));
+    }
 
-        var sheetDataExtractor = new SheetDataExtractor(sheet);
-        var sheetAnalyzer = new SheetAnalyzer(sheetDataExtractor, analysisKeywords, hierarchyLevelIndicator);
+    public void analyzeAllSheets(AnalysisKeywordDictionary analysisKeywords, String hierarchyLevelIndicator) {
+
+        for (SheetDataExtractor sheetDataExtractor : workbookDataExtractor.getSheetDataExtractors()) {
+            analyzeSheet(analysisKeywords, hierarchyLevelIndicator, sheetDataExtractor);
+        }
+    }
+
+    private void analyzeSheet(AnalysisKeywordDictionary analysisKeywords, String hierarchyLevelIndicator,
+                              SheetDataExtractor sheetDataExtractor) {
+
+        var sheetAnalyzer = createSheetAnalyzer(analysisKeywords, hierarchyLevelIndicator, sheetDataExtractor);
 
         sheetAnalyzer.initialize();
         sheetAnalyzer.analyze();
@@ -48,15 +63,81 @@ public class WorkbookAnalyzer {
         sheetAnalyzers.add(sheetAnalyzer);
     }
 
-    public void analyzeAllSheets(AnalysisKeywordDictionary analysisKeywords, String hierarchyLevelIndicator) {
+    /**
+     * Analyzes all sheets concurrently on at most as many threads as there are available processors.
+     * The sheet analyzers are collected in sheet order, as {@link #analyzeAllSheets} does.
+     * The first failure of any sheet is rethrown once the remaining sheets are cancelled.
+     *
+     * <p>Extraction only runs concurrently as far as the {@link SheetDataExtractor}s allow: usermodel sheets of
+     * one workbook are extracted one at a time, and .xls sheets are read by the first extraction in one pass.
+     */
+    public void analyzeAllSheetsInParallel(AnalysisKeywordDictionary analysisKeywords, String hierarchyLevelIndicator) {
 
         int sheetCount = workbookDataExtractor.getNumberOfSheets();
+        int threadCount = Math.min(sheetCount, Runtime.getRuntime().availableProcessors());
+
+        if (threadCount <= 1) {
+            analyzeAllSheets(analysisKeywords, hierarchyLevelIndicator);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            List<Future<SheetAnalyzer>> results = new ArrayList<>(sheetCount);
 
-        for (int sheetId = 1; sheetId <= sheetCount; sheetId++) {
-            analyzeSheet(analysisKeywords, hierarchyLevelIndicator, sheetId);
+            // Sheet extractors are looked up on this thread; only extraction and analysis run concurrently
+            for (SheetDataExtractor sheetDataExtractor : workbookDataExtractor.getSheetDataExtractors()) {
+
+                var sheetAnalyzer = createSheetAnalyzer(analysisKeywords, hierarchyLevelIndicator, sheetDataExtractor);
+
+                results.add(executor.submit(() -> {
+                    sheetAnalyzer.initialize();
+                    sheetAnalyzer.analyze();
+                    return sheetAnalyzer;
+                }));
+            }
+
+            for (Future<SheetAnalyzer> result : results)
+                sheetAnalyzers.add(awaitResult(result));
+
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private SheetAnalyzer createSheetAnalyzer(AnalysisKeywordDictionary analysisKeywords,
+                                              String hierarchyLevelIndicator,
+                                              SheetDataExtractor sheetDataExtractor) {
+
+        var sheetAnalyzer = new SheetAnalyzer(sheetDataExtractor, analysisKeywords, hierarchyLevelIndicator);
+        sheetAnalyzer.setApproximationError(approximationError);
+        return sheetAnalyzer;
+    }
+
+    private static SheetAnalyzer awaitResult(Future<SheetAnalyzer> result) {
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing sheets.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new IllegalStateException("Sheet analysis failed.", e.getCause());
+        }
+    }
+
+    /**
+     * @param approximationError see {@link SheetAnalyzer#setApproximationError}; applies to sheets analyzed afterward.
+     */
+    public void setApproximationError(double approximationError) {
+        this.approximationError = approximationError;
+    }
+
     public List<SheetAnalyzer> getSheetAnalyzers() {
         return sheetAnalyzers;
     }
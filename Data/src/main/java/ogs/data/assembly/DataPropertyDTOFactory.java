@@ -1,28 +1,30 @@
 package ogs.data.assembly;
 
-import ogs.data.core.CellValue;
+import ogs.data.core.CellColumn;
+import ogs.model.ontology.DataPropertyAssertion;
 import ogs.model.ontology.DataPropertyDTO;
 
 import java.util.Date;
 
 public class DataPropertyDTOFactory {
 
-    public static DataPropertyDTO createDataProperty(String id, CellValue cellValue, Class<?> type) {
+    public static DataPropertyAssertion createDataProperty(DataPropertyDTO descriptor, CellColumn column, int row, Class<?> type) {
 
         if (type != Object.class) {
-            return new DataPropertyDTO(id, type.cast(cellValue.getValue()), type);
+            return new DataPropertyAssertion(descriptor, type.cast(column.getValue(row)), type);
         }
 
-        return switch (cellValue.getType()) {
-            case BOOLEAN -> new DataPropertyDTO(id, cellValue.getBoolean(), Boolean.class);
+        return switch (column.getType(row)) {
+            case BOOLEAN -> new DataPropertyAssertion(descriptor, column.getBoolean(row), Boolean.class);
             case NUMERIC -> {
-                if (cellValue.isOfType(Date.class))
-                    yield new DataPropertyDTO(id, cellValue.getDate(), Date.class);
-                if (cellValue.getDouble() % 1 == 0)
-                    yield new DataPropertyDTO(id, cellValue.getValue(), Integer.class);
-                yield new DataPropertyDTO(id, cellValue.getDouble(), Double.class);
+                if (column.isDate(row))
+                    yield new DataPropertyAssertion(descriptor, column.getDate(row), Date.class);
+                double value = column.getDouble(row);
+                if (value % 1 == 0)
+                    yield new DataPropertyAssertion(descriptor, value, Integer.class);
+                yield new DataPropertyAssertion(descriptor, value, Double.class);
             }
-            case STRING -> new DataPropertyDTO(id, cellValue.getString(), String.class);
+            case STRING -> new DataPropertyAssertion(descriptor, column.getString(row), String.class);
             default -> throw new RuntimeException("Unexpected CellValue type");
         };
     }
@@ -1,124 +1,146 @@
 package ogs.data.assembly;
 
 import ogs.model.ontology.HierarchicalDTO;
-import org.apache.commons.lang3.NotImplementedException;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Parses a column of resources whose hierarchy levels are marked by a subclass indicator. The format is
+ * detected in a single scan of the column, preferring the first of the formats the column satisfies:
+ * <ol>
+ *     <li>every row begins with as many indicators as its level ({@code "--Dog"});</li>
+ *     <li>every row contains as many indicators as its level, anywhere ({@code "Dog--"});</li>
+ *     <li>flat, i.e., the rows have no hierarchy.</li>
+ * </ol>
+ * The indicator is matched literally.
+ */
 class HierarchyParser {
 
-    public static <T extends HierarchicalDTO<T>> List<T> parseHierarchyFromStringsBeginsWithIndicator(
-            String[] hierarchy, String hierarchyIndicator, ResourceDTOFactoryProvider factoryProvider) throws RuntimeException {
+    private enum Format { BEGINS_WITH_INDICATOR, CONTAINS_INDICATOR, FLAT }
 
-        List<T> hierarchicalResources = new ArrayList<>(hierarchy.length);
-        List<T> ancestorRecord = new ArrayList<>(hierarchy.length);
-        int currentLevel = 0;
+    public static <T extends HierarchicalDTO<T>> List<T> parseHierarchy(
+            String[] hierarchy, String hierarchyIndicator, ResourceDTOFactoryProvider factoryProvider) {
 
-        if (hierarchy[0].startsWith(hierarchyIndicator)) {
-            throw new RuntimeException(
-                    String.format("The first element of the hierarchy starts with the subclass indicator \"%s\".",
-                            hierarchyIndicator));
-        }
+        int[] leadingIndicators = new int[hierarchy.length];
+        int[] containedIndicators = new int[hierarchy.length];
 
-        for (String classString : hierarchy) {
-            int level = 0;
-            int indicatorLength = hierarchyIndicator.length();
-
-            // Count leading subclass indicators
-            while (classString.startsWith(hierarchyIndicator, level * indicatorLength)) {
-                level++;
-            }
-
-            if (level > currentLevel + 1) {
-                throw new RuntimeException(String.format("One or more levels of hierarchy are missing. " +
-                        "There are %d subclass indicators, while the previous level is %d", level, currentLevel));
-            }
-
-            String id = classString.substring(level * indicatorLength);  // Removing subclass indicators from start
-            T currentObject = (T)factoryProvider.getInstance().create(id);
-
-            if (level > 0) {
-                T prev = hierarchicalResources.get(hierarchicalResources.indexOf(ancestorRecord.get(level - 1)));
-                currentObject.addAncestor(prev);
-            } else if (level < currentLevel) {
-                T prev = hierarchicalResources.get(hierarchicalResources.indexOf(ancestorRecord.get(level - 1)));
-                currentObject.addAncestor(prev);
-            } else if (level < 0) {
-                throw new RuntimeException("Hierarchy level somehow got less than 0.");
-            }
+        return switch (detectFormat(hierarchy, hierarchyIndicator, leadingIndicators, containedIndicators)) {
+            case BEGINS_WITH_INDICATOR -> parseLevels(hierarchy, hierarchyIndicator, leadingIndicators, true, factoryProvider);
+            case CONTAINS_INDICATOR -> parseLevels(hierarchy, hierarchyIndicator, containedIndicators, false, factoryProvider);
+            case FLAT -> parseFlat(hierarchy, hierarchyIndicator, factoryProvider);
+        };
+    }
 
-            hierarchicalResources.add(currentObject);
-            ancestorRecord.add(level, currentObject);
-            currentLevel = level;
-        }
+    /**
+     * Counts the leading and the contained indicators of every row while checking both hierarchical formats:
+     * the first row must have no indicator, no row may be more than one level below the previous one,
+     * and no row may have a blank id.
+     */
+    private static Format detectFormat(String[] hierarchy, String hierarchyIndicator,
+                                       int[] leadingIndicators, int[] containedIndicators) {
 
-        return hierarchicalResources;
-    }
+        if (hierarchy.length == 0 || hierarchyIndicator == null || hierarchyIndicator.isEmpty())
+            return Format.FLAT;
 
-    // fall back to
-    public static <T extends HierarchicalDTO<T>> List<T> parseHierarchyFromStringsContainsIndicator(
-            String[] hierarchy, String hierarchyIndicator, ResourceDTOFactoryProvider factoryProvider) {
+        int indicatorLength = hierarchyIndicator.length();
+        boolean beginsWithIndicator = true;
+        boolean containsIndicator = true;
 
-        List<T> hierarchicalResources = new ArrayList<>(hierarchy.length);
-        List<T> ancestorRecord = new ArrayList<>(hierarchy.length);
-        int currentLevel = 0;
+        for (int row = 0; row < hierarchy.length && (beginsWithIndicator || containsIndicator); row++) {
+
+            String classString = hierarchy[row];
+
+            if (classString == null)
+                return Format.FLAT;
+
+            int leading = 0;
+            while (classString.startsWith(hierarchyIndicator, leading * indicatorLength))
+                leading++;
+
+            int contained = leading;
+            for (int from = classString.indexOf(hierarchyIndicator, leading * indicatorLength); from >= 0;
+                 from = classString.indexOf(hierarchyIndicator, from + indicatorLength))
+                contained++;
 
-        if (hierarchy[0].contains(hierarchyIndicator)) {
-            throw new RuntimeException(
-                    String.format("The first element of the hierarchy contains the subclass indicator \"%s\".",
-                            hierarchyIndicator));
+            int previousLeading = row == 0 ? -1 : leadingIndicators[row - 1];
+            int previousContained = row == 0 ? -1 : containedIndicators[row - 1];
+
+            beginsWithIndicator &= leading <= previousLeading + 1
+                    && !classString.substring(leading * indicatorLength).isBlank();
+
+            containsIndicator &= contained <= previousContained + 1
+                    && !classString.replace(hierarchyIndicator, "").isBlank();
+
+            leadingIndicators[row] = leading;
+            containedIndicators[row] = contained;
         }
 
-        for (String classString : hierarchy) {
+        if (beginsWithIndicator)
+            return Format.BEGINS_WITH_INDICATOR;
+
+        return containsIndicator ? Format.CONTAINS_INDICATOR : Format.FLAT;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends HierarchicalDTO<T>> List<T> parseLevels(
+            String[] hierarchy, String hierarchyIndicator, int[] levels, boolean indicatorsLead,
+            ResourceDTOFactoryProvider factoryProvider) {
+
+        var factory = factoryProvider.getInstance();
+        List<T> hierarchicalResources = new ArrayList<>(hierarchy.length);
+        // The latest resource of every level above the current row
+        List<T> ancestorStack = new ArrayList<>();
+        // Ancestors are resolved to the first resource with their id
+        Map<String, T> firstResourceById = new HashMap<>();
 
-            int level = StringUtils.countMatches(classString, hierarchyIndicator);
+        for (int row = 0; row < hierarchy.length; row++) {
 
-            if (level > currentLevel + 1) {
-                throw new RuntimeException(String.format("One or more levels of hierarchy is missing. " +
-                        "There are %d subclass indicators, while the previous level is %d", level, currentLevel));
-            }
+            int level = levels[row];
+            String id = indicatorsLead
+                    ? hierarchy[row].substring(level * hierarchyIndicator.length())
+                    : hierarchy[row].replace(hierarchyIndicator, "");
 
-            String id = classString.replaceAll(hierarchyIndicator, "");
-            T currentObject = (T)factoryProvider.getInstance().create(id);
+            T currentObject = (T) factory.create(id);
 
-            if (level == 0) {
-                // Do nothing more.
-            }
-            else if (level > 0) {
-                T prev = hierarchicalResources.get(hierarchicalResources.indexOf(ancestorRecord.get(level - 1)));
-                currentObject.addAncestor(prev);
-            } else if (level < currentLevel) {
-                T prev = hierarchicalResources.get(hierarchicalResources.indexOf(ancestorRecord.get(level - 1)));
-                currentObject.addAncestor(prev);
-            } else if (level <  0) {
-                throw new NotImplementedException("Hierarchy level somehow got less than 0.");
-            }
+            if (level > 0)
+                currentObject.addAncestor(firstResourceById.get(ancestorStack.get(level - 1).getId()));
 
             hierarchicalResources.add(currentObject);
-            ancestorRecord.add(level, currentObject);
-            currentLevel = level;
+            firstResourceById.putIfAbsent(currentObject.getId(), currentObject);
+
+            if (level < ancestorStack.size())
+                ancestorStack.set(level, currentObject);
+            else
+                ancestorStack.add(currentObject);
         }
 
         return hierarchicalResources;
     }
 
-    // fall back to
-    public static <T extends HierarchicalDTO<T>> List<T> parseHierarchyFlat(
-            String[] hierarchy, String hierarchyIndicator, ResourceDTOFactoryProvider factoryProvider)
-    {
+    @SuppressWarnings("unchecked")
+    private static <T extends HierarchicalDTO<T>> List<T> parseFlat(
+            String[] hierarchy, String hierarchyIndicator, ResourceDTOFactoryProvider factoryProvider) {
+
+        var factory = factoryProvider.getInstance();
         List<T> hierarchicalResources = new ArrayList<>(hierarchy.length);
 
         for (String s : hierarchy) {
 
-            if (s == null || s.isBlank())
+            if (s == null)
                 continue;
 
-            String id = s.replaceAll(hierarchyIndicator, "");
-            T currentObject = (T)factoryProvider.getInstance().create(id);
+            String id = hierarchyIndicator == null || hierarchyIndicator.isEmpty()
+                    ? s
+                    : s.replace(hierarchyIndicator, "");
 
-            hierarchicalResources.add(currentObject);
+            // Rows without an id, e.g., made of indicators only, have no resource to create
+            if (id.isBlank())
+                continue;
+
+            hierarchicalResources.add((T) factory.create(id));
         }
 
         return hierarchicalResources;
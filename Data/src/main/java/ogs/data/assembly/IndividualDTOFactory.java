@@ -1,28 +1,28 @@
 package ogs.data.assembly;
 
-import ogs.data.core.CellValue;
+import ogs.data.core.CellColumn;
 import ogs.model.ontology.IndividualDTO;
 
 public class IndividualDTOFactory {
 
-    public static String formatIdentifier(CellValue cellValue) {
+    public static String formatIdentifier(CellColumn column, int row) {
 
-        if (cellValue == null || cellValue.isNull()) {
+        if (column.isNull(row)) {
             throw new IllegalArgumentException("CellValue cannot be null or empty");
         }
 
-        return switch (cellValue.getType()) {
-            case STRING -> cellValue.getString();
+        return switch (column.getType(row)) {
+            case STRING -> column.getString(row);
             case NUMERIC -> {
-                double value = cellValue.getDouble();
+                double value = column.getDouble(row);
                 yield (value == (long) value) ? String.valueOf((long) value) : String.valueOf(value);
             }
-            default -> throw new IllegalArgumentException("Unsupported CellType for identifier: " + cellValue.getType());
+            default -> throw new IllegalArgumentException("Unsupported CellType for identifier: " + column.getType(row));
         };
     }
 
-    public static IndividualDTO createIndividual(CellValue cellValue) {
-        String identifier = formatIdentifier(cellValue);
+    public static IndividualDTO createIndividual(CellColumn column, int row) {
+        String identifier = formatIdentifier(column, row);
         return new IndividualDTO(identifier, identifier); // Using the same value for id and label
     }
 }
@@ -0,0 +1,77 @@
+package ogs.data.assembly;
+
+import ogs.data.core.CellColumn;
+import ogs.data.core.StringDictionary;
+import ogs.model.ontology.IndividualDTO;
+import ogs.model.ontology.ResourceDTO;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds individuals by the id that {@link IndividualDTOFactory#createIndividual} would give the value of a cell.
+ * Individuals are hashed by id once; STRING cells are moreover resolved once per string code, so looking up
+ * a repeated string neither formats nor sanitizes it again.
+ */
+class IndividualIndex {
+
+    private final Map<String, IndividualDTO> individualsById;
+
+    // Resolutions by code of the dictionary that the last STRING cell was encoded with
+    private StringDictionary dictionary;
+    private IndividualDTO[] individualsByStringCode;
+    private final BitSet resolvedStringCodes = new BitSet();
+
+    /**
+     * @param individuals the individuals, among which nulls are skipped.
+     */
+    IndividualIndex(List<IndividualDTO> individuals) {
+
+        individualsById = HashMap.newHashMap(individuals.size());
+
+        // The first of the individuals sharing an id is found
+        for (IndividualDTO individual : individuals)
+            if (individual != null)
+                individualsById.putIfAbsent(individual.getId(), individual);
+    }
+
+    /**
+     * @return the individual of the cell value, or null if there is none.
+     * @throws IllegalArgumentException if the value cannot identify an individual.
+     */
+    IndividualDTO find(CellColumn column, int row) {
+
+        if (individualsById.isEmpty())
+            return null;
+
+        if (column.getType(row) != CellType.STRING)
+            return findById(column, row);
+
+        if (column.getDictionary() != dictionary) {
+            dictionary = column.getDictionary();
+            individualsByStringCode = new IndividualDTO[dictionary.size()];
+            resolvedStringCodes.clear();
+        }
+
+        int code = column.getStringCode(row);
+
+        // The dictionary may have grown since the resolutions were allocated
+        if (code >= individualsByStringCode.length)
+            individualsByStringCode = Arrays.copyOf(individualsByStringCode, dictionary.size());
+
+        if (!resolvedStringCodes.get(code)) {
+            individualsByStringCode[code] = findById(column, row);
+            resolvedStringCodes.set(code);
+        }
+
+        return individualsByStringCode[code];
+    }
+
+    private IndividualDTO findById(CellColumn column, int row) {
+        return individualsById.get(ResourceDTO.sanitizeId(IndividualDTOFactory.formatIdentifier(column, row)));
+    }
+}
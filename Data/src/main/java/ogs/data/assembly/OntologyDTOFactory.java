@@ -1,6 +1,6 @@
 package ogs.data.assembly;
 
-import ogs.data.core.CellValue;
+import ogs.data.core.CellColumn;
 import ogs.data.analysis.ColumnAnalyzer;
 import ogs.data.analysis.SheetAnalyzer;
 import ogs.model.core.TableAnalysisConcept;
@@ -8,6 +8,7 @@ import ogs.model.ontology.*;
 import org.apache.poi.ss.usermodel.CellType;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static ogs.model.core.TableAnalysisConcept.*;
@@ -15,13 +16,23 @@ import static ogs.model.core.TableAnalysisConcept.*;
 public class OntologyDTOFactory {
 
     private final SheetAnalyzer sheetAnalyzer;
+    private final ResourceRegistry registry;
     private final Map<TableAnalysisConcept, List<ColumnAnalyzer>> columnsToBuild;
     private final List<ResourceDTO> resources = new ArrayList<>();
     private final boolean thereAreIndividuals;
+    private IndividualIndex individualIndex;
 
     public OntologyDTOFactory(SheetAnalyzer sheetAnalyzer) {
+        this(sheetAnalyzer, new ResourceRegistry());
+    }
+
+    /**
+     * @param registry the registry of canonical classes and properties, shared by the factories of a run.
+     */
+    public OntologyDTOFactory(SheetAnalyzer sheetAnalyzer, ResourceRegistry registry) {
 
         this.sheetAnalyzer = sheetAnalyzer;
+        this.registry = registry;
         this.columnsToBuild = HashMap.newHashMap(sheetAnalyzer.getColumnAnalyzers().length);
 
         for (var column : sheetAnalyzer.getColumnAnalyzers()) {
@@ -47,10 +58,12 @@ public class OntologyDTOFactory {
             setComments(individuals);
             setTypes(individuals);
             setDataProperties(individuals);
-            setObjectRelationships(individuals);
+            setObjectRelationships();
 
             assert individuals != null;
-            resources.addAll(individuals);
+            individuals.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(resources::add);
         }
 
         return resources;
@@ -75,9 +88,11 @@ public class OntologyDTOFactory {
 
     private void buildHierarchy(ColumnAnalyzer column, TableAnalysisConcept concept) {
 
-        String[] hierarchy = Arrays.stream(column.getColumnData())
-                .filter(cellValue -> cellValue != null && !cellValue.isNull())
-                .map(CellValue::toString)
+        CellColumn columnData = column.getColumnData();
+
+        String[] hierarchy = IntStream.range(0, columnData.size())
+                .filter(row -> !columnData.isNull(row))
+                .mapToObj(columnData::toString)
                 .toArray(String[]::new);
 
         String hierarchyIndicator = sheetAnalyzer.getHierarchyLevelIndicator();
@@ -92,18 +107,7 @@ public class OntologyDTOFactory {
 
         ResourceDTOFactoryProvider factoryProvider = new ResourceDTOFactoryProvider(concept);
 
-        try {
-            resources.addAll(HierarchyParser.parseHierarchyFromStringsBeginsWithIndicator(
-                    hierarchy, hierarchyIndicator, factoryProvider));
-        } catch (RuntimeException e) {
-            try {
-                resources.addAll(HierarchyParser.parseHierarchyFromStringsContainsIndicator(
-                        hierarchy, hierarchyIndicator, factoryProvider));
-            } catch (Exception ex) {
-                resources.addAll(HierarchyParser.parseHierarchyFlat(
-                        hierarchy, hierarchyIndicator, factoryProvider));
-            }
-        }
+        resources.addAll(HierarchyParser.parseHierarchy(hierarchy, hierarchyIndicator, factoryProvider));
     }
 
     private void createFromHeaders() {
@@ -127,30 +131,44 @@ public class OntologyDTOFactory {
         });
     }
 
+    /**
+     * @return the individuals by row, null for the rows without an identifier.
+     */
     private List<IndividualDTO> buildIndividuals() {
 
+        List<IndividualDTO> individuals = null;
+
         if (columnsToBuild.containsKey(IdentifierColumn)) {
-            return createIndividualsUsing(IdentifierColumn);
+            individuals = createIndividualsUsing(IdentifierColumn);
         }
         else if (columnsToBuild.containsKey(LabelColumn)) {
-            return createIndividualsUsing(LabelColumn);
+            individuals = createIndividualsUsing(LabelColumn);
         }
 
-        return null;
+        if (individuals != null)
+            individualIndex = new IndividualIndex(individuals);
+
+        return individuals;
     }
 
     private List<IndividualDTO> createIndividualsUsing(TableAnalysisConcept concept) {
 
         List<IndividualDTO> individuals = new ArrayList<>();
 
-        CellValue[] identifierValues = columnsToBuild.get(concept)
+        CellColumn identifierValues = columnsToBuild.get(concept)
                 .getFirst()
                 .getColumnData();
 
-        Arrays.stream(identifierValues)
-                .filter(Objects::nonNull)
-                .forEach(cellValue -> individuals.add(
-                        IndividualDTOFactory.createIndividual(cellValue)));
+        for (int row = 0; row < identifierValues.size(); row++) {
+
+            // Kept as a placeholder, so that the other columns are read by the same row index
+            if (identifierValues.isNull(row)) {
+                individuals.add(null);
+                continue;
+            }
+
+            individuals.add(IndividualDTOFactory.createIndividual(identifierValues, row));
+        }
 
         return individuals;
     }
@@ -161,20 +179,22 @@ public class OntologyDTOFactory {
         if (!columnsToBuild.containsKey(LabelColumn))
             return;
 
-        CellValue[] labels = columnsToBuild.get(LabelColumn).getFirst().getColumnData();
+        CellColumn labels = columnsToBuild.get(LabelColumn).getFirst().getColumnData();
 
-        for (int i = 0; i < labels.length; i++) {
+        for (int i = 0; i < labels.size(); i++) {
 
-            if (labels[i] == null || labels[i].isNull())
+            if (labels.isNull(i))
                 continue;
 
-            IndividualDTO individual = individuals.get(i);
-            String labelValue = labels[i].toString();
-            AnnotationPropertyDTO idLabel = new AnnotationPropertyDTO(AnnotationPropertyType.label, individual.getId());
+            IndividualDTO individual = individualAt(individuals, i);
 
-            if (individual.getAnnotationProperties() != null
-                && individual.getAnnotationProperties().contains(idLabel))
-                individual.removeAnnotationProperty(idLabel);
+            if (individual == null)
+                continue;
+
+            String labelValue = labels.toString(i);
+
+            // Replaces the label taken from the identifier
+            individual.removeAnnotationProperty(AnnotationPropertyType.label, null);
 
             individual.addLabel(labelValue);
         }
@@ -185,14 +205,19 @@ public class OntologyDTOFactory {
         if (!columnsToBuild.containsKey(CommentColumn))
             return;
 
-        CellValue[] comments = columnsToBuild.get(CommentColumn).getFirst().getColumnData();
+        CellColumn comments = columnsToBuild.get(CommentColumn).getFirst().getColumnData();
 
-        for (int i = 0; i < comments.length; i++) {
+        for (int i = 0; i < comments.size(); i++) {
 
-            if (comments[i] == null || comments[i].isNull())
+            if (comments.isNull(i))
                 continue;
 
-            individuals.get(i).addComment(comments[i].toString());
+            IndividualDTO individual = individualAt(individuals, i);
+
+            if (individual == null)
+                continue;
+
+            individual.addComment(comments.toString(i));
         }
     }
 
@@ -203,35 +228,30 @@ public class OntologyDTOFactory {
 
         for (ColumnAnalyzer classColumn : columnsToBuild.get(ClassColumn)) {
 
-            CellValue[] classes = classColumn.getColumnData();
-
-            for (int rowId = 0; rowId < classes.length; rowId++) {
+            CellColumn classes = classColumn.getColumnData();
 
-                CellValue classCell = classes[rowId];
+            for (int rowId = 0; rowId < classes.size(); rowId++) {
 
-                if (classCell == null || classCell.isNull())
+                if (classes.isNull(rowId))
                     continue;
 
-                if (rowId >= individuals.size())
-                    continue;
-
-                IndividualDTO individual = individuals.get(rowId);
+                IndividualDTO individual = individualAt(individuals, rowId);
 
                 if (individual == null)
                     continue;
 
-                if (classCell.getType() == CellType.BOOLEAN) {
+                if (classes.getType(rowId) == CellType.BOOLEAN) {
 
-                    if (classCell.getBoolean())
-                        individual.addType(new ClassDTO(classColumn.getHeader()));
+                    if (classes.getBoolean(rowId))
+                        individual.addType(registry.internClass(classColumn.getHeader()));
 
                     continue;
                 }
 
-                List<String> tokens = classCell.getTokenizedValues();
+                List<String> tokens = classes.getTokenizedValues(rowId);
 
                 individual.addAllTypes(tokens.stream()
-                        .map(ClassDTO::new)
+                        .map(registry::internClass)
                         .toList());
             }
         }
@@ -246,9 +266,9 @@ public class OntologyDTOFactory {
 
             if (labelColumnList != null) {
                 ColumnAnalyzer labelColumn = labelColumnList.getFirst();
-                individual.addType(new ClassDTO(labelColumn.getHeader()));
+                individual.addType(registry.internClass(labelColumn.getHeader()));
             } else {
-                individual.addType(new ClassDTO(sheetAnalyzer.getSheetName()));
+                individual.addType(registry.internClass(sheetAnalyzer.getSheetName()));
             }
         }
     }
@@ -259,72 +279,69 @@ public class OntologyDTOFactory {
             return;
 
         for (ColumnAnalyzer dataPropertyColumn : columnsToBuild.get(DataPropertyColumn)) {
-            CellValue[] dataProperties = dataPropertyColumn.getColumnData();
-            String dataPropertyId = dataPropertyColumn.getHeader();
+            CellColumn dataProperties = dataPropertyColumn.getColumnData();
+            String dataPropertyName = dataPropertyColumn.getHeader();
 
             Class<?> type = Object.class;
 
-            for (int rowId = 0; rowId < dataProperties.length; rowId++) {
-                CellValue cellValue = dataProperties[rowId];
-                if (cellValue == null || cellValue.isNull()) continue;
+            for (int rowId = 0; rowId < dataProperties.size(); rowId++) {
+                if (dataProperties.isNull(rowId)) continue;
+
+                IndividualDTO individual = individualAt(individuals, rowId);
+                if (individual == null) continue;
 
-                DataPropertyDTO dataProperty = DataPropertyDTOFactory.createDataProperty(
-                        dataPropertyId, cellValue, type
+                DataPropertyAssertion dataProperty = DataPropertyDTOFactory.createDataProperty(
+                        registry.internDataProperty(dataPropertyName), dataProperties, rowId, type
                 );
 
-                individuals.get(rowId).addDataProperty(dataProperty);
+                individual.addDataProperty(dataProperty);
             }
         }
     }
 
-    private void setObjectRelationships(List<IndividualDTO> individuals) {
+    private static IndividualDTO individualAt(List<IndividualDTO> individuals, int row) {
+        return row < individuals.size() ? individuals.get(row) : null;
+    }
+
+    private void setObjectRelationships() {
 
         if (!columnsToBuild.containsKey(ObjectPropertyColumn)) return;
 
         columnsToBuild.get(ObjectPropertyColumn).forEach(objectPropertyColumn -> {
             var identifierColumnContainer = columnsToBuild.get(IdentifierColumn);
             if (identifierColumnContainer != null)
-                addObjectProperties(individuals, identifierColumnContainer.getFirst(), objectPropertyColumn);
+                addObjectProperties(identifierColumnContainer.getFirst(), objectPropertyColumn);
 
             var labelColumnContainer = columnsToBuild.get(LabelColumn);
             if (labelColumnContainer != null)
-                addObjectProperties(individuals, labelColumnContainer.getFirst(), objectPropertyColumn);
+                addObjectProperties(labelColumnContainer.getFirst(), objectPropertyColumn);
         });
     }
 
     private void addObjectProperties(
-            List<IndividualDTO> individuals,
             ColumnAnalyzer identifier,
             ColumnAnalyzer objectPropertyColumn) {
 
-        CellValue[] identifierColumnData = identifier.getColumnData();
-        CellValue[] objPropColumnData = objectPropertyColumn.getColumnData();
+        CellColumn identifierColumnData = identifier.getColumnData();
+        CellColumn objPropColumnData = objectPropertyColumn.getColumnData();
         String objPropertyName = objectPropertyColumn.getHeader();
 
-        for (int rowId = 0; rowId < identifierColumnData.length; rowId++) {
-            CellValue subjectValue = identifierColumnData[rowId];
-            if (subjectValue == null || subjectValue.isNull()) continue;
+        for (int rowId = 0; rowId < identifierColumnData.size(); rowId++) {
+            if (identifierColumnData.isNull(rowId)) continue;
 
-            IndividualDTO foundSubject = findIndividual(individuals, subjectValue);
+            IndividualDTO foundSubject = individualIndex.find(identifierColumnData, rowId);
             if (foundSubject == null) continue;
 
-            CellValue objectValue = objPropColumnData[rowId];
-            if (objectValue == null || objectValue.isNull()) continue;
+            if (objPropColumnData.isNull(rowId)) continue;
 
-            IndividualDTO foundObject = findIndividual(individuals, objectValue);
+            IndividualDTO foundObject = individualIndex.find(objPropColumnData, rowId);
             if (foundObject == null) continue;
 
-            foundSubject.addObjectProperty(new ObjectPropertyDTO(objPropertyName, foundObject));
+            foundSubject.addObjectProperty(new ObjectPropertyAssertion(
+                    registry.internObjectProperty(objPropertyName), foundObject));
         }
     }
 
-    private IndividualDTO findIndividual(List<IndividualDTO> individuals, CellValue cellValue) {
-        return individuals.stream()
-                .filter(ind -> Objects.equals(ind, IndividualDTOFactory.createIndividual(cellValue)))
-                .findFirst()
-                .orElse(null);
-    }
-
     public Map<? extends ClassDTO, ? extends ClassDTO> getClassBindingPairs() {
 
         var result = new HashMap<ClassDTO, ClassDTO>();
@@ -337,17 +354,17 @@ public class OntologyDTOFactory {
 
         for (var targetColumn : columnsToBuild.get(ClassBindingTargetColumn)) {
 
-            for (int rowId = 0; rowId < sourceColumnValues.length; rowId++) {
+            for (int rowId = 0; rowId < sourceColumnValues.size(); rowId++) {
 
-                var sourceTokens = sourceColumnValues[rowId].getTokenizedValues();
-                var targetTokens = targetColumn.getColumnData()[rowId].getTokenizedValues();
+                var sourceTokens = sourceColumnValues.getTokenizedValues(rowId);
+                var targetTokens = targetColumn.getColumnData().getTokenizedValues(rowId);
 
                 for (String sourceToken : sourceTokens) {
 
                     for (String targetToken : targetTokens) {
                         result.put(
-                                new ClassDTO(sourceToken),
-                                new ClassDTO(targetToken));
+                                registry.internClass(sourceToken),
+                                registry.internClass(targetToken));
                     }
                 }
             }
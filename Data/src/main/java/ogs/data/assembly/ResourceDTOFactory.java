@@ -2,19 +2,29 @@ package ogs.data.assembly;
 
 import ogs.model.ontology.ResourceDTO;
 
+import java.util.function.Function;
+
 class ResourceDTOFactory<T extends ResourceDTO> {
     private final Class<T> type;
+    private final Function<String, T> constructor;
 
-    public ResourceDTOFactory(Class<T> type) {
+    public ResourceDTOFactory(Class<T> type, Function<String, T> constructor) {
         this.type = type;
+        this.constructor = constructor;
+    }
+
+    /**
+     * A factory for a type that cannot be created from an id alone.
+     */
+    public ResourceDTOFactory(Class<T> type) {
+        this(type, null);
     }
 
     public T create(String id) {
-        try {
-            return type.getConstructor(String.class).newInstance(id);
-        } catch (Exception e) {
-            throw new RuntimeException("Could not create instance of "
-                    + type.getName(), e);
-        }
+
+        if (constructor == null)
+            throw new RuntimeException("Could not create instance of " + type.getName());
+
+        return constructor.apply(id);
     }
 }
@@ -3,8 +3,35 @@ package ogs.data.assembly;
 import ogs.model.core.TableAnalysisConcept;
 import ogs.model.ontology.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import static ogs.model.core.TableAnalysisConcept.*;
+
 class ResourceDTOFactoryProvider {
 
+    private static final Map<TableAnalysisConcept, ResourceDTOFactory<? extends ResourceDTO>> FACTORIES
+            = new EnumMap<>(TableAnalysisConcept.class);
+
+    static {
+        var individualFactory = new ResourceDTOFactory<>(IndividualDTO.class, IndividualDTO::new);
+        var classFactory = new ResourceDTOFactory<>(ClassDTO.class, ClassDTO::new);
+        var dataPropertyFactory = new ResourceDTOFactory<>(DataPropertyDTO.class, DataPropertyDTO::new);
+        var objectPropertyFactory = new ResourceDTOFactory<>(ObjectPropertyDTO.class, ObjectPropertyDTO::new);
+
+        FACTORIES.put(IdentifierColumn, individualFactory);
+        FACTORIES.put(ClassColumn, classFactory);
+        FACTORIES.put(PredefinedClassHierarchyColumn, classFactory);
+        FACTORIES.put(ClassBindingSourceColumn, classFactory);
+        FACTORIES.put(ClassBindingTargetColumn, classFactory);
+        FACTORIES.put(DataPropertyColumn, dataPropertyFactory);
+        FACTORIES.put(PredefinedDataPropertyHierarchyColumn, dataPropertyFactory);
+        FACTORIES.put(ObjectPropertyColumn, objectPropertyFactory);
+        FACTORIES.put(PredefinedObjectPropertyHierarchyColumn, objectPropertyFactory);
+        // An annotation property is defined by its type, so it has no constructor from an id
+        FACTORIES.put(PredefinedAnnotationPropertyHierarchyColumn, new ResourceDTOFactory<>(AnnotationPropertyDTO.class));
+    }
+
     private final TableAnalysisConcept concept;
 
     public ResourceDTOFactoryProvider(TableAnalysisConcept concept) {
@@ -18,16 +45,11 @@ class ResourceDTOFactoryProvider {
 
     public static ResourceDTOFactory<? extends ResourceDTO> getInstance(TableAnalysisConcept concept) {
 
-        return switch (concept) {
-            case IdentifierColumn -> new ResourceDTOFactory<>(IndividualDTO.class);
-            case ClassColumn, PredefinedClassHierarchyColumn,
-                    ClassBindingSourceColumn, ClassBindingTargetColumn -> new ResourceDTOFactory<>(ClassDTO.class);
-            case DataPropertyColumn,
-                    PredefinedDataPropertyHierarchyColumn -> new ResourceDTOFactory<>(DataPropertyDTO.class);
-            case ObjectPropertyColumn,
-                    PredefinedObjectPropertyHierarchyColumn -> new ResourceDTOFactory<>(ObjectPropertyDTO.class);
-            case PredefinedAnnotationPropertyHierarchyColumn -> new ResourceDTOFactory<>(AnnotationPropertyDTO.class);
-            default -> throw new RuntimeException("Not supported concept " + concept);
-        };
+        var factory = FACTORIES.get(concept);
+
+        if (factory == null)
+            throw new RuntimeException("Not supported concept " + concept);
+
+        return factory;
     }
 }
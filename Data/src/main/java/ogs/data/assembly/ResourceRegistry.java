@@ -0,0 +1,36 @@
+package ogs.data.assembly;
+
+import ogs.model.ontology.ClassDTO;
+import ogs.model.ontology.DataPropertyDTO;
+import ogs.model.ontology.ObjectPropertyDTO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out canonical instances of the classes and property descriptors that cells refer to, so that a name
+ * repeated across the rows, columns and sheets of a run yields a single DTO. Instances are keyed by the name
+ * they are created from, which also decides their labels: names sanitized to the same id but labelled
+ * differently stay apart.
+ *
+ * <p>A registry is meant to be shared by the {@link OntologyDTOFactory}s of one run, which assemble
+ * the sheets one at a time; it is not thread-safe.
+ */
+public class ResourceRegistry {
+
+    private final Map<String, ClassDTO> classes = new HashMap<>();
+    private final Map<String, DataPropertyDTO> dataProperties = new HashMap<>();
+    private final Map<String, ObjectPropertyDTO> objectProperties = new HashMap<>();
+
+    public ClassDTO internClass(String name) {
+        return classes.computeIfAbsent(name, ClassDTO::new);
+    }
+
+    public DataPropertyDTO internDataProperty(String name) {
+        return dataProperties.computeIfAbsent(name, DataPropertyDTO::new);
+    }
+
+    public ObjectPropertyDTO internObjectProperty(String name) {
+        return objectProperties.computeIfAbsent(name, ObjectPropertyDTO::new);
+    }
+}
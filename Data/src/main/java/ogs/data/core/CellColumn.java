@@ -0,0 +1,119 @@
+package ogs.data.core;
+
+import ogs.model.core.RegExPatterns;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Read access to a single column of cell values. Unlike {@code CellValue[]}, a column is scanned
+ * through typed accessors, so reading a number, a boolean or a string code does not box anything.
+ * The typed accessors follow the semantics of the corresponding {@link CellValue} getters and throw
+ * {@link ClassCastException} when the row holds a value of another type.
+ */
+public interface CellColumn {
+
+    int size();
+
+    /**
+     * @return the type of the row, which is always one of BOOLEAN, NUMERIC (numbers and dates), STRING, or _NONE,
+     * like {@link CellValue#getType()}.
+     */
+    CellType getType(int row);
+
+    /**
+     * @return {@code true} if the NUMERIC value of the row is a date.
+     */
+    boolean isDate(int row);
+
+    double getDouble(int row) throws ClassCastException;
+
+    /**
+     * @return the date of the row in milliseconds since the epoch, as {@link Date#getTime()} returns it.
+     */
+    long getDateTime(int row) throws ClassCastException;
+
+    boolean getBoolean(int row) throws ClassCastException;
+
+    String getString(int row) throws ClassCastException;
+
+    /**
+     * @return the code of the STRING value of the row in the {@link StringDictionary} of the column.
+     * Equal strings of the same {@link CellData} share a code.
+     */
+    int getStringCode(int row) throws ClassCastException;
+
+    StringDictionary getDictionary();
+
+    default Date getDate(int row) throws ClassCastException {
+        return new Date(getDateTime(row));
+    }
+
+    default boolean isNull(int row) {
+        return getType(row) == CellType._NONE;
+    }
+
+    /**
+     * @return the boxed value of the row, as {@link CellValue#getValue()} would return it.
+     */
+    default Object getValue(int row) {
+
+        return switch (getType(row)) {
+            case NUMERIC -> isDate(row) ? getDate(row) : (Object) getDouble(row);
+            case BOOLEAN -> getBoolean(row);
+            case STRING -> getString(row);
+            default -> null;
+        };
+    }
+
+    default CellValue get(int row) {
+
+        return switch (getType(row)) {
+            case NUMERIC -> isDate(row) ? new CellValue(getDate(row)) : new CellValue(getDouble(row));
+            case BOOLEAN -> new CellValue(getBoolean(row));
+            case STRING -> new CellValue(getString(row));
+            default -> new CellValue((String) null);
+        };
+    }
+
+    /**
+     * @return the same string as {@link CellValue#toString()} for the value of the row.
+     */
+    default String toString(int row) {
+        return String.valueOf(getValue(row));
+    }
+
+    /**
+     * @return the same tokens as {@link CellValue#getTokenizedValues()} for the value of the row.
+     */
+    default List<String> getTokenizedValues(int row) {
+
+        if (getType(row) != CellType.STRING)
+            return new ArrayList<>();
+
+        return Arrays.stream(getString(row)
+                        .split(RegExPatterns.TOKENIZATION))
+                .map(String::strip)
+                .toList();
+    }
+
+    /**
+     * @return a view of this column without its first {@code rows} rows. Nothing is copied.
+     */
+    default CellColumn skip(int rows) {
+        return new ColumnSlice(this, rows);
+    }
+
+    default CellValue[] toArray() {
+
+        CellValue[] values = new CellValue[size()];
+
+        for (int row = 0; row < values.length; row++)
+            values[row] = get(row);
+
+        return values;
+    }
+}
@@ -1,23 +1,22 @@
 package ogs.data.core;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A wrapper class for 2D cell data providing a convenient interface for row-wise
- * and column-wise access to cell values. This class encapsulates a 2D array of
- * {@link CellValue} objects and offers methods to retrieve and modify the data
- * either by row or by column. Consider minimizing alternating row-column updates
- * to improve performance.
+ * and column-wise access to cell values. The data is kept column by column in
+ * {@link ColumnStore}s sharing one {@link StringDictionary}. Rows and columns are
+ * handed out as views of that single store, and edits modify it in place, so the
+ * data is never transposed. {@link CellValue} arrays are only materialized on request.
  */
 public class CellData {
 
-    // Two perspectives of the same data
-    private CellValue[][] rowValues;
-    private CellValue[][] columnValues;
-    private boolean rowValuesAreUpToDate = true;
-    private boolean columnValuesAreUpToDate = true;
+    private StringDictionary dictionary;
+    private ColumnStore[] columns;
+    private int numberOfRows;
     private final List<ModelChangeListener> listeners = new ArrayList<>();
     private final int numberOfRowsToSkip = 1; // to skip the first (header) row
 
@@ -29,76 +28,66 @@ public class CellData {
         listeners.add(listener);
     }
 
-    private void notifyModelChanged() {
+    private void notifyModelChanged(ModelChangeEvent event) {
         for (ModelChangeListener listener : listeners) {
-            listener.onModelChanged();
+            listener.onModelChanged(event);
         }
     }
 
-    private void columnValuesChanged() {
-        rowValuesAreUpToDate = false;
-        columnValuesAreUpToDate = true;
-        notifyModelChanged();
-    }
-
-    private void rowValuesChanged() {
-        columnValuesAreUpToDate = false;
-        rowValuesAreUpToDate = true;
-        notifyModelChanged();
-    }
-
-    private void ensureColumnValuesAreUpToDate() {
-
-        if (columnValuesAreUpToDate)
-            return;
-
-        columnValues = transpose(rowValues);
-        columnValuesAreUpToDate = true;
-    }
-
-    private void ensureRowValuesAreUpToDate() {
+    /**
+     * Notifies the listeners that every column and row may have changed.
+     */
+    private void notifyDataReplaced(int numberOfRowsBefore) {
 
-        if (rowValuesAreUpToDate)
-            return;
+        BitSet allColumns = new BitSet(columns.length);
+        allColumns.set(0, columns.length);
+        BitSet allRows = new BitSet(numberOfRowsBefore);
+        allRows.set(0, numberOfRowsBefore);
 
-        rowValues = transpose(columnValues);
-        rowValuesAreUpToDate = true;
+        notifyModelChanged(new ModelChangeEvent(allColumns, allRows, true));
     }
 
     /**
-     * @return The transposed matrix.
-     * Adds null values where those were missing to complete the rectangular matrix.
+     * Replaces the store with {@code numberOfColumns} empty columns of {@code numberOfRows} rows.
      */
-    private CellValue[][] transpose(CellValue[][] matrix) {
+    private void resetStore(int numberOfColumns, int numberOfRows) {
 
-        int rowCount = matrix.length;
-        int rowMaxLength = 0;
-        for (CellValue[] row : matrix) {
-            if (row.length > rowMaxLength) {
-                rowMaxLength = row.length;
-            }
-        }
+        this.numberOfRows = numberOfRows;
+        dictionary = new StringDictionary();
+        columns = new ColumnStore[numberOfColumns];
+
+        for (int columnId = 0; columnId < numberOfColumns; columnId++)
+            columns[columnId] = new ColumnStore(numberOfRows, dictionary);
+    }
 
-        var transposed = new CellValue[rowMaxLength][rowCount];
+    private static int maxLength(CellValue[][] matrix) {
 
-        for (int i = 0; i < rowCount; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                transposed[j][i] = matrix[i][j];
+        int maxLength = 0;
+        for (CellValue[] array : matrix) {
+            if (array.length > maxLength) {
+                maxLength = array.length;
             }
         }
 
-        return transposed;
+        return maxLength;
     }
 
     //region Getters and setters
     /**
      * Retrieves the cell data in row-wise format.
+     * Adds {@code _NONE} values where those were missing to complete the rectangular matrix.
      *
      * @return a 2D array of {@link CellValue} objects organized by rows.
      */
     public CellValue[][] getRowValues() {
 
-        ensureRowValuesAreUpToDate();
+        var rowValues = new CellValue[numberOfRows][columns.length];
+
+        for (int columnId = 0; columnId < columns.length; columnId++) {
+            for (int rowId = 0; rowId < numberOfRows; rowId++) {
+                rowValues[rowId][columnId] = columns[columnId].get(rowId);
+            }
+        }
 
         return rowValues;
     }
@@ -113,19 +102,30 @@ public class CellData {
         if (rowValues == null)
             rowValues = new CellValue[0][];
 
-        this.rowValues = rowValues;
+        int numberOfRowsBefore = numberOfRows;
+        resetStore(maxLength(rowValues), rowValues.length);
+
+        for (int rowId = 0; rowId < rowValues.length; rowId++) {
+            for (int columnId = 0; columnId < rowValues[rowId].length; columnId++) {
+                columns[columnId].set(rowId, rowValues[rowId][columnId]);
+            }
+        }
 
-        rowValuesChanged();
+        notifyDataReplaced(numberOfRowsBefore);
     }
 
     /**
      * Retrieves the cell data in column-wise format.
+     * Adds {@code _NONE} values where those were missing to complete the rectangular matrix.
      *
-     * @return a transposed 2D array of {@link CellValue} objects organized by columns.
+     * @return a 2D array of {@link CellValue} objects organized by columns.
      */
     public CellValue[][] getColumnValues() {
 
-        ensureColumnValuesAreUpToDate();
+        var columnValues = new CellValue[columns.length][];
+
+        for (int columnId = 0; columnId < columns.length; columnId++)
+            columnValues[columnId] = columns[columnId].toArray();
 
         return columnValues;
     }
@@ -140,39 +140,117 @@ public class CellData {
         if (columnValues == null)
             columnValues = new CellValue[0][];
 
-        this.columnValues = columnValues;
+        int numberOfRowsBefore = numberOfRows;
+        resetStore(columnValues.length, maxLength(columnValues));
+
+        for (int columnId = 0; columnId < columnValues.length; columnId++) {
+            for (int rowId = 0; rowId < columnValues[columnId].length; rowId++) {
+                columns[columnId].set(rowId, columnValues[columnId][rowId]);
+            }
+        }
 
-        columnValuesChanged();
+        notifyDataReplaced(numberOfRowsBefore);
     }
 
-    public CellValue[] getColumn(int columnId) {
+    public CellColumn getColumn(int columnId) {
+        return columns[columnId];
+    }
 
-        ensureColumnValuesAreUpToDate();
+    /**
+     * @return a view of the column that skips the header row.
+     */
+    public CellColumn getColumnWithoutHeader(int columnId) {
+        return columns[columnId].skip(numberOfRowsToSkip);
+    }
 
-        return columnValues[columnId];
+    public String getHeader(int columnId) {
+        return columns[columnId].toString(0);
     }
 
-    public CellValue[] getColumnWithoutHeader(int columnId) {
+    /**
+     * @return a view of the row. Removing rows before it makes the view show the row that takes its place.
+     */
+    public CellRow getRow(int rowId) {
+        return new CellRow(this, rowId);
+    }
 
-        ensureColumnValuesAreUpToDate();
+    public int getNumberOfColumns() {
+        return columns.length;
+    }
 
-        return Arrays.stream(columnValues[columnId])
-                .skip(numberOfRowsToSkip)
-                .toArray(CellValue[]::new);
+    public int getNumberOfRows() {
+        return numberOfRows;
     }
+    //endregion
+
+    //region In-place edits
+    /**
+     * Modifies a single column in place. The listeners are only notified if a value actually changed.
+     *
+     * @param update receives the store of the column and may change any of its values.
+     */
+    public void updateColumn(int columnId, Consumer<ColumnStore> update) {
 
-    public CellValue[] getRow(int rowId) {
+        BitSet changedRows = columns[columnId].trackChanges(update);
 
-        ensureRowValuesAreUpToDate();
+        if (changedRows.isEmpty())
+            return;
+
+        BitSet changedColumns = new BitSet(columns.length);
+        changedColumns.set(columnId);
 
-        return rowValues[rowId];
+        notifyModelChanged(new ModelChangeEvent(changedColumns, changedRows, false));
     }
 
-    public int getNumberOfColumns() {
+    /**
+     * Removes every row not set in {@code rowsToKeep}; the remaining rows keep their order.
+     */
+    public void retainRows(BitSet rowsToKeep) {
+
+        BitSet removedRows = rowsToKeep.get(0, numberOfRows);
+        removedRows.flip(0, numberOfRows);
+
+        if (removedRows.isEmpty())
+            return;
+
+        for (ColumnStore column : columns)
+            column.retainRows(rowsToKeep);
+
+        numberOfRows -= removedRows.cardinality();
+
+        // Every column loses the same rows
+        BitSet changedColumns = new BitSet(columns.length);
+        changedColumns.set(0, columns.length);
+
+        notifyModelChanged(new ModelChangeEvent(changedColumns, removedRows, true));
+    }
+
+    /**
+     * Removes every column not set in {@code columnsToKeep}; the remaining columns keep their order.
+     */
+    public void retainColumns(BitSet columnsToKeep) {
+
+        int firstRemovedColumnId = columnsToKeep.nextClearBit(0);
+
+        if (firstRemovedColumnId >= columns.length)
+            return;
+
+        var keptColumns = new ColumnStore[columnsToKeep.get(0, columns.length).cardinality()];
+        int keptColumnId = 0;
+
+        for (int columnId = columnsToKeep.nextSetBit(0);
+             columnId >= 0 && columnId < columns.length;
+             columnId = columnsToKeep.nextSetBit(columnId + 1)) {
+            keptColumns[keptColumnId++] = columns[columnId];
+        }
+
+        columns = keptColumns;
 
-        ensureColumnValuesAreUpToDate();
+        // The columns before the first removed one keep their index
+        BitSet changedColumns = new BitSet(columns.length);
+        changedColumns.set(firstRemovedColumnId, columns.length);
 
-        return columnValues.length;
+        notifyModelChanged(new ModelChangeEvent(changedColumns, new BitSet(), true));
     }
     //endregion
 }
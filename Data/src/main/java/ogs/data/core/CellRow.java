@@ -0,0 +1,48 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * A view of a single row of {@link CellData}. Nothing is copied: every access reads
+ * the column store of the row's {@link CellData}, so the view follows later changes to it.
+ */
+public class CellRow {
+
+    private final CellData cellData;
+    private final int rowId;
+
+    CellRow(CellData cellData, int rowId) {
+        this.cellData = cellData;
+        this.rowId = rowId;
+    }
+
+    public int size() {
+        return cellData.getNumberOfColumns();
+    }
+
+    public CellType getType(int columnId) {
+        return cellData.getColumn(columnId).getType(rowId);
+    }
+
+    public boolean isNull(int columnId) {
+        return cellData.getColumn(columnId).isNull(rowId);
+    }
+
+    public CellValue get(int columnId) {
+        return cellData.getColumn(columnId).get(rowId);
+    }
+
+    public String toString(int columnId) {
+        return cellData.getColumn(columnId).toString(rowId);
+    }
+
+    public CellValue[] toArray() {
+
+        CellValue[] values = new CellValue[size()];
+
+        for (int columnId = 0; columnId < values.length; columnId++)
+            values[columnId] = get(columnId);
+
+        return values;
+    }
+}
@@ -33,6 +33,17 @@ public class CellValue {
         }
     }
 
+    public CellValue(Date value) {
+
+        if (value == null) {
+            this.type = _NONE;
+            this.value = null;
+        } else {
+            this.type = NUMERIC;
+            this.value = value;
+        }
+    }
+
     public CellValue(Cell cell) {
 
         if (cell == null) {
@@ -0,0 +1,73 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * A view of a column without its first rows. Nothing is copied: every access is
+ * forwarded to the underlying column, so the view follows later changes to it.
+ */
+class ColumnSlice implements CellColumn {
+
+    private final CellColumn column;
+    private final int offset;
+
+    ColumnSlice(CellColumn column, int offset) {
+        this.column = column;
+        this.offset = offset;
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, column.size() - offset);
+    }
+
+    @Override
+    public CellType getType(int row) {
+        return column.getType(row + offset);
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return column.isNull(row + offset);
+    }
+
+    @Override
+    public boolean isDate(int row) {
+        return column.isDate(row + offset);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return column.getDouble(row + offset);
+    }
+
+    @Override
+    public long getDateTime(int row) {
+        return column.getDateTime(row + offset);
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return column.getBoolean(row + offset);
+    }
+
+    @Override
+    public String getString(int row) {
+        return column.getString(row + offset);
+    }
+
+    @Override
+    public int getStringCode(int row) {
+        return column.getStringCode(row + offset);
+    }
+
+    @Override
+    public StringDictionary getDictionary() {
+        return column.getDictionary();
+    }
+
+    @Override
+    public CellColumn skip(int rows) {
+        return new ColumnSlice(column, offset + rows);
+    }
+}
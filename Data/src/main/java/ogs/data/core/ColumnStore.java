@@ -0,0 +1,271 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.function.Consumer;
+
+/**
+ * Column-oriented, primitive-specialized storage of cell values. Every row has a one-byte type tag
+ * (which also marks {@code _NONE} rows); numbers and dates (as epoch milliseconds) are kept in
+ * a {@code double[]}, booleans are packed into a bitset and strings are stored as
+ * {@link StringDictionary} codes. The payload arrays are allocated only once the column receives
+ * a value of the corresponding type.
+ */
+public class ColumnStore implements CellColumn {
+
+    private static final byte NONE = 0;
+    private static final byte NUMBER = 1;
+    private static final byte DATE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+
+    private final StringDictionary dictionary;
+    private final byte[] tags;
+    private final BitSet booleans;
+    private double[] numbers;
+    private int[] stringCodes;
+    private int size;
+    private BitSet changedRows; // Recorded while CellData tracks an update
+
+    /**
+     * Creates a column of {@code size} {@code _NONE} rows.
+     */
+    public ColumnStore(int size, StringDictionary dictionary) {
+
+        this.dictionary = dictionary;
+        this.tags = new byte[size];
+        this.booleans = new BitSet();
+        this.size = size;
+    }
+
+    /**
+     * Stores the given values in a new column with its own dictionary.
+     * {@code null} elements become {@code _NONE} rows.
+     */
+    public static ColumnStore of(CellValue[] values) {
+
+        ColumnStore column = new ColumnStore(values.length, new StringDictionary());
+
+        for (int row = 0; row < values.length; row++)
+            column.set(row, values[row]);
+
+        return column;
+    }
+
+    public void set(int row, CellValue value) {
+
+        if (value == null || value.isNull()) {
+            setNull(row);
+            return;
+        }
+
+        switch (value.getType()) {
+            case NUMERIC -> {
+                if (value.getValue() instanceof Date date)
+                    setDate(row, date);
+                else
+                    setDouble(row, value.getDouble());
+            }
+            case BOOLEAN -> setBoolean(row, value.getBoolean());
+            case STRING -> setString(row, value.getString());
+            default -> setNull(row);
+        }
+    }
+
+    public void setNull(int row) {
+
+        if (tags[row] == NONE)
+            return;
+
+        tags[row] = NONE;
+        recordChange(row);
+    }
+
+    public void setDouble(int row, double value) {
+
+        if (tags[row] == NUMBER && Double.doubleToLongBits(numbers[row]) == Double.doubleToLongBits(value))
+            return;
+
+        ensureNumbers()[row] = value;
+        tags[row] = NUMBER;
+        recordChange(row);
+    }
+
+    public void setDate(int row, Date value) {
+
+        if (tags[row] == DATE && numbers[row] == value.getTime())
+            return;
+
+        ensureNumbers()[row] = value.getTime();
+        tags[row] = DATE;
+        recordChange(row);
+    }
+
+    public void setBoolean(int row, boolean value) {
+
+        if (tags[row] == BOOLEAN && booleans.get(row) == value)
+            return;
+
+        booleans.set(row, value);
+        tags[row] = BOOLEAN;
+        recordChange(row);
+    }
+
+    /**
+     * Stores a string the same way {@link CellValue#CellValue(String)} does: blank strings become {@code _NONE}.
+     */
+    public void setString(int row, String value) {
+
+        if (value == null || value.isBlank()) {
+            setNull(row);
+            return;
+        }
+
+        int code = dictionary.encode(value);
+
+        if (tags[row] == STRING && stringCodes[row] == code)
+            return;
+
+        ensureStringCodes()[row] = code;
+        tags[row] = STRING;
+        recordChange(row);
+    }
+
+    /**
+     * Applies {@code update} to this column and collects the rows whose value it actually changed.
+     * Setting a row to the value it already holds does not count as a change.
+     */
+    BitSet trackChanges(Consumer<ColumnStore> update) {
+
+        changedRows = new BitSet();
+
+        try {
+            update.accept(this);
+            return changedRows;
+        } finally {
+            changedRows = null;
+        }
+    }
+
+    private void recordChange(int row) {
+
+        if (changedRows != null)
+            changedRows.set(row);
+    }
+
+    /**
+     * Removes every row not set in {@code rowsToKeep} by moving the remaining rows up in place.
+     */
+    public void retainRows(BitSet rowsToKeep) {
+
+        int newSize = 0;
+
+        for (int row = rowsToKeep.nextSetBit(0); row >= 0 && row < size; row = rowsToKeep.nextSetBit(row + 1)) {
+
+            if (row != newSize) {
+                tags[newSize] = tags[row];
+                booleans.set(newSize, booleans.get(row));
+                if (numbers != null)
+                    numbers[newSize] = numbers[row];
+                if (stringCodes != null)
+                    stringCodes[newSize] = stringCodes[row];
+            }
+
+            newSize++;
+        }
+
+        Arrays.fill(tags, newSize, size, NONE);
+        booleans.clear(newSize, size);
+        size = newSize;
+    }
+
+    private double[] ensureNumbers() {
+
+        if (numbers == null)
+            numbers = new double[tags.length];
+
+        return numbers;
+    }
+
+    private int[] ensureStringCodes() {
+
+        if (stringCodes == null)
+            stringCodes = new int[tags.length];
+
+        return stringCodes;
+    }
+
+    private void requireTag(int row, byte expected) {
+
+        if (tags[row] != expected)
+            throw new ClassCastException(String.format(
+                    "Row %d holds a value of type %s, not %s.", row, getType(row), typeOf(expected)));
+    }
+
+    private static CellType typeOf(byte tag) {
+
+        return switch (tag) {
+            case NUMBER, DATE -> CellType.NUMERIC;
+            case BOOLEAN -> CellType.BOOLEAN;
+            case STRING -> CellType.STRING;
+            default -> CellType._NONE;
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CellType getType(int row) {
+        return typeOf(tags[row]);
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return tags[row] == NONE;
+    }
+
+    @Override
+    public boolean isDate(int row) {
+        return tags[row] == DATE;
+    }
+
+    @Override
+    public double getDouble(int row) {
+        requireTag(row, NUMBER);
+        return numbers[row];
+    }
+
+    @Override
+    public long getDateTime(int row) {
+        requireTag(row, DATE);
+        return (long) numbers[row];
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        requireTag(row, BOOLEAN);
+        return booleans.get(row);
+    }
+
+    @Override
+    public String getString(int row) {
+        return dictionary.decode(getStringCode(row));
+    }
+
+    @Override
+    public int getStringCode(int row) {
+        requireTag(row, STRING);
+        return stringCodes[row];
+    }
+
+    @Override
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,363 @@
+package ogs.data.core;
+
+import ogs.model.core.LocalizationDictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A {@link LocalizationDictionary} queried in place in its compiled image, typically a memory-mapped file,
+ * so that no term is read before it is looked up. The image consists of
+ * <ol>
+ *     <li>a header, recording the size and the modification time of the workbook it was compiled from;</li>
+ *     <li>the start of every row in the cell table, and the cell table, pointing to the terms;</li>
+ *     <li>two open-addressing hash tables of case-folded terms: one finding the first cell containing
+ *     a term, and one finding the first row containing a term in a given column;</li>
+ *     <li>a string pool of the distinct terms and folded terms, as UTF-16 code units.</li>
+ * </ol>
+ * The hash of a folded term is its {@link String#hashCode()}, which is the same in every JVM.
+ */
+public class CompiledLocalizationDictionary implements LocalizationDictionary {
+
+    private static final int MAGIC = 0x4F475344; // "OGSD"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES + 5 * Integer.BYTES;
+    private static final int SLOT_SIZE = 3 * Integer.BYTES;
+    private static final int NONE = -1;
+
+    private final ByteBuffer image;
+    private final long sourceSize;
+    private final long sourceLastModified;
+    private final int sourcePathOffset;
+    private final int rowCount;
+
+    private final int rowStartsBase;
+    private final int cellsBase;
+    private final int termSlots;
+    private final int termTableBase;
+    private final int languageTermSlots;
+    private final int languageTermTableBase;
+    private final int stringPoolBase;
+
+    // Folded language tag -> its first column, read from the header row when the image is opened
+    private final Map<String, Integer> languageColumns = new HashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not hold a compiled dictionary.
+     */
+    public CompiledLocalizationDictionary(ByteBuffer image) {
+
+        this.image = image;
+
+        if (image.capacity() < HEADER_SIZE || image.getInt(0) != MAGIC || image.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Not a compiled localization dictionary");
+
+        sourceSize = image.getLong(8);
+        sourceLastModified = image.getLong(16);
+        sourcePathOffset = image.getInt(24);
+        rowCount = image.getInt(28);
+        int cellCount = image.getInt(32);
+        termSlots = image.getInt(36);
+        languageTermSlots = image.getInt(40);
+
+        rowStartsBase = HEADER_SIZE;
+        cellsBase = rowStartsBase + (rowCount + 1) * Integer.BYTES;
+        termTableBase = cellsBase + cellCount * Integer.BYTES;
+        languageTermTableBase = termTableBase + termSlots * SLOT_SIZE;
+        stringPoolBase = languageTermTableBase + languageTermSlots * SLOT_SIZE;
+
+        if (rowCount < 0 || cellCount < 0 || Integer.bitCount(termSlots) != 1
+            || Integer.bitCount(languageTermSlots) != 1 || stringPoolBase > image.capacity())
+            throw new IllegalArgumentException("Corrupted compiled localization dictionary");
+
+        if (rowCount > 0) {
+            for (int columnId = 1; columnId < getColumnCount(0); columnId++) {
+
+                String languageTag = getTerm(0, columnId);
+
+                if (languageTag != null)
+                    languageColumns.putIfAbsent(LocalizationDictionary.foldCase(languageTag.strip()), columnId);
+            }
+        }
+    }
+
+    /**
+     * Maps a compiled dictionary file read-only. The mapping outlives the channel.
+     */
+    public static CompiledLocalizationDictionary map(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledLocalizationDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return whether the image was compiled from the workbook at the path, as it is now.
+     */
+    public boolean isCompiledFrom(String sourcePath, long sourceSize, long sourceLastModified) {
+        return this.sourceSize == sourceSize
+               && this.sourceLastModified == sourceLastModified
+               && sourcePath.equals(readString(sourcePathOffset));
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount(int row) {
+
+        Objects.checkIndex(row, rowCount);
+        return rowStart(row + 1) - rowStart(row);
+    }
+
+    @Override
+    public String getTerm(int row, int column) {
+
+        Objects.checkIndex(column, getColumnCount(row));
+        int offset = image.getInt(cellsBase + (rowStart(row) + column) * Integer.BYTES);
+
+        return offset == NONE ? null : readString(offset);
+    }
+
+    @Override
+    public TermLocation findTerm(String term) {
+
+        String foldedTerm = LocalizationDictionary.foldCase(term);
+
+        for (int slot = spread(foldedTerm.hashCode()) & (termSlots - 1); ; slot = (slot + 1) & (termSlots - 1)) {
+
+            int slotBase = termTableBase + slot * SLOT_SIZE;
+            int offset = image.getInt(slotBase);
+
+            if (offset == NONE)
+                return null;
+
+            if (stringEquals(offset, foldedTerm))
+                return new TermLocation(image.getInt(slotBase + 4), image.getInt(slotBase + 8));
+        }
+    }
+
+    @Override
+    public int findRow(String term, String languageTag) {
+
+        Integer languageColumn = languageColumns.get(LocalizationDictionary.foldCase(languageTag));
+
+        if (languageColumn == null)
+            return NONE;
+
+        String foldedTerm = LocalizationDictionary.foldCase(term);
+        int hash = languageTermHash(foldedTerm, languageColumn);
+
+        for (int slot = hash & (languageTermSlots - 1); ; slot = (slot + 1) & (languageTermSlots - 1)) {
+
+            int slotBase = languageTermTableBase + slot * SLOT_SIZE;
+            int offset = image.getInt(slotBase);
+
+            if (offset == NONE)
+                return NONE;
+
+            if (image.getInt(slotBase + 4) == languageColumn && stringEquals(offset, foldedTerm))
+                return image.getInt(slotBase + 8);
+        }
+    }
+
+    /**
+     * Compiles dictionary rows as {@link LocalizationDictionaryProvider#getDictionary()} returns them:
+     * row 0 holds the language tags. Terms are indexed as {@code OntologyLabelLocalizationService} looks
+     * them up: stripped, ignoring case, in the columns that have a language tag.
+     */
+    public static byte[] compile(String[][] dictionaryRows, String sourcePath, long sourceSize, long sourceLastModified) {
+
+        var strings = new StringPool();
+        int sourcePathOffset = strings.add(sourcePath);
+
+        int[] rowStarts = new int[dictionaryRows.length + 1];
+        for (int rowId = 0; rowId < dictionaryRows.length; rowId++)
+            rowStarts[rowId + 1] = rowStarts[rowId] + dictionaryRows[rowId].length;
+
+        int[] cells = new int[rowStarts[dictionaryRows.length]];
+        for (int rowId = 0, cell = 0; rowId < dictionaryRows.length; rowId++) {
+            for (String term : dictionaryRows[rowId])
+                cells[cell++] = term == null ? NONE : strings.add(term);
+        }
+
+        // Folded term -> the first row containing it, and its first column in that row
+        Map<String, TermLocation> termIndex = new LinkedHashMap<>();
+        // (folded term, column) -> the first row containing it in that column
+        Map<LanguageTerm, Integer> languageTermIndex = new LinkedHashMap<>();
+
+        int headerLength = dictionaryRows.length > 0 ? dictionaryRows[0].length : 0;
+
+        for (int rowId = 1; rowId < dictionaryRows.length; rowId++) {
+
+            // Only the header cells of a row have a language
+            int columnCount = Math.min(dictionaryRows[rowId].length, headerLength);
+
+            for (int columnId = 0; columnId < columnCount; columnId++) {
+
+                String term = dictionaryRows[rowId][columnId];
+
+                if (term == null || term.isBlank())
+                    continue;
+
+                String foldedTerm = LocalizationDictionary.foldCase(term.strip());
+
+                termIndex.putIfAbsent(foldedTerm, new TermLocation(rowId, columnId));
+
+                if (columnId > 0)
+                    languageTermIndex.putIfAbsent(new LanguageTerm(foldedTerm, columnId), rowId);
+            }
+        }
+
+        int termSlots = slotCount(termIndex.size());
+        int[] termTable = emptyTable(termSlots);
+
+        for (Map.Entry<String, TermLocation> entry : termIndex.entrySet()) {
+
+            int slot = freeSlot(termTable, spread(entry.getKey().hashCode()) & (termSlots - 1));
+            termTable[slot * 3] = strings.add(entry.getKey());
+            termTable[slot * 3 + 1] = entry.getValue().row();
+            termTable[slot * 3 + 2] = entry.getValue().column();
+        }
+
+        int languageTermSlots = slotCount(languageTermIndex.size());
+        int[] languageTermTable = emptyTable(languageTermSlots);
+
+        for (Map.Entry<LanguageTerm, Integer> entry : languageTermIndex.entrySet()) {
+
+            String foldedTerm = entry.getKey().foldedTerm();
+            int column = entry.getKey().column();
+
+            int slot = freeSlot(languageTermTable, languageTermHash(foldedTerm, column) & (languageTermSlots - 1));
+            languageTermTable[slot * 3] = strings.add(foldedTerm);
+            languageTermTable[slot * 3 + 1] = column;
+            languageTermTable[slot * 3 + 2] = entry.getValue();
+        }
+
+        var bytes = new ByteArrayOutputStream();
+
+        try (var output = new DataOutputStream(bytes)) {
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(sourceSize);
+            output.writeLong(sourceLastModified);
+            output.writeInt(sourcePathOffset);
+            output.writeInt(dictionaryRows.length);
+            output.writeInt(cells.length);
+            output.writeInt(termSlots);
+            output.writeInt(languageTermSlots);
+
+            for (int[] section : new int[][] { rowStarts, cells, termTable, languageTermTable })
+                for (int value : section)
+                    output.writeInt(value);
+
+            strings.writeTo(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private record LanguageTerm(String foldedTerm, int column) {}
+
+    private int rowStart(int row) {
+        return image.getInt(rowStartsBase + row * Integer.BYTES);
+    }
+
+    private String readString(int offset) {
+
+        int position = stringPoolBase + offset;
+        char[] chars = new char[image.getInt(position)];
+
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = image.getChar(position + Integer.BYTES + i * Character.BYTES);
+
+        return new String(chars);
+    }
+
+    private boolean stringEquals(int offset, String value) {
+
+        int position = stringPoolBase + offset;
+
+        if (image.getInt(position) != value.length())
+            return false;
+
+        for (int i = 0; i < value.length(); i++) {
+            if (image.getChar(position + Integer.BYTES + i * Character.BYTES) != value.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static int languageTermHash(String foldedTerm, int column) {
+        return spread(foldedTerm.hashCode() * 31 + column);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return a power of two at least twice the number of entries, so that probe sequences stay short.
+     */
+    private static int slotCount(int entryCount) {
+        return Integer.highestOneBit(Math.max(entryCount, 1) * 2 - 1) << 1;
+    }
+
+    private static int[] emptyTable(int slotCount) {
+
+        int[] table = new int[slotCount * 3];
+        Arrays.fill(table, NONE);
+        return table;
+    }
+
+    private static int freeSlot(int[] table, int slot) {
+
+        int mask = table.length / 3 - 1;
+
+        while (table[slot * 3] != NONE)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    /**
+     * Distinct strings, each stored once as its length followed by its UTF-16 code units.
+     */
+    private static final class StringPool {
+
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int size;
+
+        int add(String value) {
+
+            return offsets.computeIfAbsent(value, key -> {
+                strings.add(key);
+                int offset = size;
+                size += Integer.BYTES + key.length() * Character.BYTES;
+                return offset;
+            });
+        }
+
+        void writeTo(DataOutputStream output) throws IOException {
+
+            for (String value : strings) {
+                output.writeInt(value.length());
+                output.writeChars(value);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ogs.data.core;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -16,18 +17,33 @@ public class ExcelFileManager {
 
     public Workbook read(String filePath)
             throws IOException, InvalidFormatException  {
+        return read(filePath, false);
+    }
+
+    /**
+     * @param readOnly whether .xlsx/.xlsm packages are opened read-only, so that closing them
+     *                 leaves the file untouched.
+     */
+    public Workbook read(String filePath, boolean readOnly)
+            throws IOException, InvalidFormatException  {
 
         if (filePath.endsWith(".xls")) {
             fileInputStream = new FileInputStream(filePath);
             return new HSSFWorkbook(fileInputStream);
         } else { // .xlsx/.xlsm files are expected here
-            opcPackage = OPCPackage.open(filePath);
+            opcPackage = OPCPackage.open(filePath, readOnly ? PackageAccess.READ : PackageAccess.READ_WRITE);
             return new XSSFWorkbook(opcPackage);
         }
     }
 
     public void close() throws IOException {
         if (fileInputStream != null) fileInputStream.close();
-        if (opcPackage != null) opcPackage.close();
+        if (opcPackage != null) {
+            // Closing a read-only package would try to save it; reverting just releases the file
+            if (opcPackage.getPackageAccess() == PackageAccess.READ)
+                opcPackage.revert();
+            else
+                opcPackage.close();
+        }
     }
 }
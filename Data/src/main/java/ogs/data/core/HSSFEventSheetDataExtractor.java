@@ -0,0 +1,30 @@
+package ogs.data.core;
+
+import java.util.function.Supplier;
+
+/**
+ * Extracts the values of a single .xls sheet from the record stream, read by
+ * {@link HSSFEventWorkbookDataExtractor} through {@link HSSFSheetValuesListener}
+ * instead of building an {@code HSSFWorkbook}. Records are decoded one by one and
+ * only the extracted {@link CellValue}s are kept.
+ */
+public class HSSFEventSheetDataExtractor extends SheetDataExtractor {
+
+    private final String sheetName;
+    private final Supplier<CellValue[][]> valuesReader;
+
+    HSSFEventSheetDataExtractor(String sheetName, Supplier<CellValue[][]> valuesReader) {
+        this.sheetName = sheetName;
+        this.valuesReader = valuesReader;
+    }
+
+    @Override
+    public CellValue[][] extractValues() {
+        return valuesReader.get();
+    }
+
+    @Override
+    public String getSheetName() {
+        return sheetName;
+    }
+}
@@ -0,0 +1,153 @@
+package ogs.data.core;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link WorkbookDataExtractor} for legacy .xls files built on the HSSF event model.
+ * The workbook globals, shared strings included, are read once up front. A single sheet is
+ * then extracted by a pass starting at its own substream, and {@link #getSheetDataExtractors()}
+ * extracts all sheets in one pass over their records. Every pass opens the file on its own,
+ * so that sheets can be extracted concurrently.
+ */
+public class HSSFEventWorkbookDataExtractor extends WorkbookDataExtractor {
+
+    private final File file;
+    private final HSSFWorkbookGlobals globals = new HSSFWorkbookGlobals();
+
+    public HSSFEventWorkbookDataExtractor(String filePath) throws IOException {
+
+        file = new File(filePath);
+
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(globals);
+
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(file, true)) {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem);
+        } catch (HSSFUserException | RuntimeException e) {
+            throw new IOException("Cannot read the workbook structure of " + filePath, e);
+        }
+    }
+
+    @Override
+    public boolean tryExtractMetadata() {
+        return false; // .xls files have no core properties to look for
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return globals.getSheetNames().size();
+    }
+
+    @Override
+    public SheetDataExtractor getSheetDataExtractorAtOrActive1Based(int sheetId1Based) {
+
+        int sheetId = sheetId1Based - 1;
+
+        if (sheetId < 0 || sheetId >= getNumberOfSheets())
+            sheetId = globals.getActiveSheetIndex();
+
+        int sheetIndex = sheetId;
+        return new HSSFEventSheetDataExtractor(globals.getSheetNames().get(sheetIndex), () -> readSheet(sheetIndex));
+    }
+
+    /**
+     * @return extractors of all sheets sharing a single pass over the records, run by the first extraction.
+     * The values of all sheets are then held until each sheet is extracted.
+     */
+    @Override
+    public List<SheetDataExtractor> getSheetDataExtractors() {
+
+        SheetsPass pass = new SheetsPass();
+        List<SheetDataExtractor> extractors = new ArrayList<>();
+
+        for (int sheetIndex = 0; sheetIndex < getNumberOfSheets(); sheetIndex++) {
+            int index = sheetIndex;
+            extractors.add(new HSSFEventSheetDataExtractor(globals.getSheetNames().get(index), () -> pass.take(index)));
+        }
+
+        return extractors;
+    }
+
+    private CellValue[][] readSheet(int sheetIndex) {
+
+        SheetValuesCollector collector = new SheetValuesCollector();
+        readSheets(sheetIndex, collector);
+        return collector.toArray();
+    }
+
+    /**
+     * Reads the sheets from {@code firstSheetIndex} on into the collectors, one sheet each, in a single pass
+     * starting at the substream of the first sheet, so that neither the globals nor earlier sheets are decoded
+     * again. An encrypted stream can only be decrypted from its start, so it is read from there.
+     */
+    private void readSheets(int firstSheetIndex, SheetValuesCollector... collectors) {
+
+        boolean fromStart = globals.isEncrypted();
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(new HSSFSheetValuesListener(
+                globals, fromStart ? 0 : firstSheetIndex, firstSheetIndex, collectors));
+
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(file, true);
+             InputStream records = fileSystem.createDocumentInputStream(
+                     HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()))) {
+
+            if (!fromStart)
+                records.skipNBytes(globals.getSheetPosition(firstSheetIndex));
+
+            new HSSFEventFactory().abortableProcessEvents(request, records);
+        } catch (IOException | HSSFUserException e) {
+            throw new RuntimeException("Could not read the sheet \""
+                                       + globals.getSheetNames().get(firstSheetIndex) + "\".", e);
+        }
+    }
+
+    /**
+     * The values of all sheets, read together by the first extraction and handed out once each.
+     * A sheet extracted again is read on its own.
+     */
+    private class SheetsPass {
+
+        private CellValue[][][] values;
+        private boolean[] taken;
+
+        synchronized CellValue[][] take(int sheetIndex) {
+
+            if (values == null)
+                readAll();
+
+            if (taken[sheetIndex])
+                return readSheet(sheetIndex);
+
+            CellValue[][] sheetValues = values[sheetIndex];
+            values[sheetIndex] = null;
+            taken[sheetIndex] = true;
+            return sheetValues;
+        }
+
+        private void readAll() {
+
+            SheetValuesCollector[] collectors = new SheetValuesCollector[getNumberOfSheets()];
+
+            for (int i = 0; i < collectors.length; i++)
+                collectors[i] = new SheetValuesCollector();
+
+            readSheets(0, collectors);
+
+            values = new CellValue[collectors.length][][];
+            taken = new boolean[collectors.length];
+
+            for (int i = 0; i < collectors.length; i++)
+                values[i] = collectors[i].toArray();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ogs.data.core;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * Record listener for the HSSF event model. It turns the cell records of consecutive sheets into
+ * {@link CellValue}s the same way {@link CellValue#CellValue(org.apache.poi.ss.usermodel.Cell)} does
+ * for usermodel cells, each sheet into its own collector. Shared strings and formats are looked up in
+ * the {@link HSSFWorkbookGlobals} read beforehand; a globals substream in the records is skipped.
+ *
+ * <p>Processing is aborted as soon as the last collected sheet ends.
+ */
+class HSSFSheetValuesListener extends AbortableHSSFListener {
+
+    private static final short CONTINUE = 0;
+    private static final short ABORT = 1;
+
+    private final HSSFWorkbookGlobals globals;
+    private final int firstSheetIndex;
+    private final SheetValuesCollector[] collectors;
+
+    // Position
+    private int substreamDepth = 0;
+    private int sheetIndex;
+    private SheetValuesCollector collector;
+    private FormulaRecord pendingStringFormula;
+
+    /**
+     * @param streamSheetIndex 0-based index of the first sheet substream in the records.
+     * @param firstSheetIndex  0-based index of the sheet collected by the first collector.
+     * @param collectors       receive the cells of the sheets from {@code firstSheetIndex} on, one sheet each.
+     */
+    HSSFSheetValuesListener(HSSFWorkbookGlobals globals, int streamSheetIndex,
+                            int firstSheetIndex, SheetValuesCollector... collectors) {
+        this.globals = globals;
+        this.sheetIndex = streamSheetIndex - 1;
+        this.firstSheetIndex = firstSheetIndex;
+        this.collectors = collectors;
+    }
+
+    @Override
+    public short abortableProcessRecord(Record record) {
+
+        if (pendingStringFormula != null)
+            resolvePendingStringFormula(record);
+
+        switch (record) {
+            case BOFRecord bof -> {
+                if (substreamDepth++ == 0 && bof.getType() != BOFRecord.TYPE_WORKBOOK) {
+                    sheetIndex++;
+                    int collectorIndex = sheetIndex - firstSheetIndex;
+                    collector = collectorIndex >= 0 && collectorIndex < collectors.length
+                            ? collectors[collectorIndex]
+                            : null;
+                }
+            }
+            case EOFRecord ignored -> {
+                if (--substreamDepth == 0) {
+                    collector = null;
+                    if (sheetIndex >= firstSheetIndex + collectors.length - 1)
+                        return ABORT;
+                }
+            }
+            default -> {
+                if (substreamDepth == 1 && collector != null)
+                    processSheetRecord(record);
+            }
+        }
+
+        return CONTINUE;
+    }
+
+    private void processSheetRecord(Record record) {
+
+        switch (record) {
+            case RowRecord ignored -> collector.addRow();
+            case NumberRecord number -> addCell(number, toNumericValue(number));
+            case RKRecord rk -> addCell(rk, toNumericValue(toNumberRecord(
+                    rk.getRow(), rk.getColumn(), rk.getXFIndex(), rk.getRKNumber())));
+            case MulRKRecord mulRK -> {
+                for (int i = 0; i < mulRK.getNumColumns(); i++) {
+                    NumberRecord number = toNumberRecord(
+                            mulRK.getRow(), mulRK.getFirstColumn() + i, mulRK.getXFAt(i), mulRK.getRKNumberAt(i));
+                    addCell(number, toNumericValue(number));
+                }
+            }
+            case LabelSSTRecord label -> addCell(label,
+                    new CellValue(globals.getSharedString(label.getSSTIndex())));
+            case LabelRecord label -> addCell(label, new CellValue(label.getValue()));
+            case BoolErrRecord boolErr -> addCell(boolErr, boolErr.isBoolean()
+                    ? new CellValue(boolErr.getBooleanValue())
+                    : new CellValue((String) null));
+            case FormulaRecord formula -> {
+                switch (formula.getCachedResultTypeEnum()) {
+                    case NUMERIC -> addCell(formula, toNumericValue(formula));
+                    case BOOLEAN -> addCell(formula, new CellValue(formula.getCachedBooleanValue()));
+                    case STRING -> {
+                        // The cached string arrives in the following STRING record
+                        if (formula.hasCachedResultString())
+                            pendingStringFormula = formula;
+                        else
+                            addCell(formula, new CellValue((String) null));
+                    }
+                    default -> addCell(formula, new CellValue((String) null));
+                }
+            }
+            case BlankRecord blank -> addCell(blank, new CellValue((String) null));
+            case MulBlankRecord mulBlank -> {
+                for (int i = 0; i < mulBlank.getNumColumns(); i++)
+                    collector.addCell(mulBlank.getRow(), mulBlank.getFirstColumn() + i, new CellValue((String) null));
+            }
+            default -> { }
+        }
+    }
+
+    private void resolvePendingStringFormula(Record record) {
+
+        switch (record) {
+            case StringRecord string -> addCell(pendingStringFormula, new CellValue(string.getString()));
+            // These may sit between a formula and its cached string
+            case SharedFormulaRecord ignored -> { return; }
+            case ArrayRecord ignored -> { return; }
+            case TableRecord ignored -> { return; }
+            default -> addCell(pendingStringFormula, new CellValue((String) null));
+        }
+
+        pendingStringFormula = null;
+    }
+
+    private void addCell(CellValueRecordInterface cell, CellValue cellValue) {
+        collector.addCell(cell.getRow(), cell.getColumn(), cellValue);
+    }
+
+    private CellValue toNumericValue(CellValueRecordInterface cell) {
+
+        double value = cell instanceof FormulaRecord formula
+                ? formula.getValue()
+                : ((NumberRecord) cell).getValue();
+
+        if (DateUtil.isValidExcelDate(value)
+            && DateUtil.isADateFormat(globals.getFormatIndex(cell), globals.getFormatString(cell)))
+            return new CellValue(DateUtil.getJavaDate(value, globals.isDate1904()));
+
+        return new CellValue(value);
+    }
+
+    private static NumberRecord toNumberRecord(int row, int column, short xfIndex, double value) {
+
+        NumberRecord number = new NumberRecord();
+        number.setRow(row);
+        number.setColumn((short) column);
+        number.setXFIndex(xfIndex);
+        number.setValue(value);
+        return number;
+    }
+}
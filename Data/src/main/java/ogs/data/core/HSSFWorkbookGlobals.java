@@ -0,0 +1,95 @@
+package ogs.data.core;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.hssf.record.Record;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record listener reading the globals substream of an .xls workbook: the sheets and the positions of their
+ * substreams, the shared strings, the cell formats, the date windowing and the active sheet. Processing is
+ * aborted at the end of the globals, so that no sheet is decoded.
+ *
+ * <p>Once read, the globals are only queried, so sheets may be extracted against them concurrently.
+ */
+class HSSFWorkbookGlobals extends AbortableHSSFListener {
+
+    private static final short CONTINUE = 0;
+    private static final short ABORT = 1;
+
+    private final FormatTrackingHSSFListener formats = new FormatTrackingHSSFListener(null);
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<Integer> sheetPositions = new ArrayList<>();
+    private SSTRecord sharedStrings;
+    private int activeSheetIndex = 0;
+    private boolean date1904 = false;
+    private boolean encrypted = false;
+
+    private int substreamDepth = 0;
+
+    @Override
+    public short abortableProcessRecord(Record record) {
+
+        formats.processRecordInternally(record);
+
+        switch (record) {
+            case BOFRecord ignored -> substreamDepth++;
+            case EOFRecord ignored -> {
+                if (--substreamDepth == 0)
+                    return ABORT;
+            }
+            case BoundSheetRecord boundSheet -> {
+                sheetNames.add(boundSheet.getSheetname());
+                sheetPositions.add(boundSheet.getPositionOfBof());
+            }
+            case SSTRecord sst -> sharedStrings = sst;
+            case WindowOneRecord windowOne -> activeSheetIndex = windowOne.getActiveSheetIndex();
+            case DateWindow1904Record dateWindow -> date1904 = dateWindow.getWindowing() == 1;
+            case FilePassRecord ignored -> encrypted = true;
+            default -> { }
+        }
+
+        return CONTINUE;
+    }
+
+    List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * @return the offset of the BOF record of the sheet in the workbook stream.
+     */
+    int getSheetPosition(int sheetIndex) {
+        return sheetPositions.get(sheetIndex);
+    }
+
+    int getActiveSheetIndex() {
+        return activeSheetIndex;
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    /**
+     * @return whether the workbook stream is encrypted, in which case it can only be decrypted from its start.
+     */
+    boolean isEncrypted() {
+        return encrypted;
+    }
+
+    String getSharedString(int index) {
+        return sharedStrings.getString(index).getString();
+    }
+
+    int getFormatIndex(CellValueRecordInterface cell) {
+        return formats.getFormatIndex(cell);
+    }
+
+    String getFormatString(CellValueRecordInterface cell) {
+        return formats.getFormatString(cell);
+    }
+}
@@ -1,23 +1,53 @@
 package ogs.data.core;
 
+import ogs.model.core.LocalizationDictionary;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
 
+/**
+ * Provides the localization dictionary of a workbook, either as the rows of its active sheet or compiled.
+ * The workbook is only opened when the rows are extracted.
+ *
+ * <p>The compiled dictionary is cached in a file, and recompiled whenever the size or the modification
+ * time of the workbook differs from those it was compiled from. Caching is best-effort: if the cache
+ * cannot be written, the dictionary compiled in memory is used.
+ */
 public class LocalizationDictionaryProvider {
-    private final WorkbookManager workbookManager;
-    private final SheetDataExtractor sheetDataExtractor;
 
-    public LocalizationDictionaryProvider(String dictionaryFilePath) throws IOException, InvalidFormatException {
-        workbookManager = new WorkbookManager(dictionaryFilePath);
-        sheetDataExtractor = new SheetDataExtractor(
+    private static final Path DEFAULT_CACHE_DIRECTORY
+            = Path.of(System.getProperty("java.io.tmpdir"), "ogs-localization");
+
+    private final Path dictionaryFilePath;
+    private final Path cacheDirectory;
+    private WorkbookManager workbookManager;
+
+    public LocalizationDictionaryProvider(String dictionaryFilePath) {
+        this(dictionaryFilePath, DEFAULT_CACHE_DIRECTORY);
+    }
+
+    public LocalizationDictionaryProvider(String dictionaryFilePath, Path cacheDirectory) {
+        this.dictionaryFilePath = Path.of(dictionaryFilePath).toAbsolutePath().normalize();
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public String[][] getDictionary() throws IOException, InvalidFormatException {
+
+        if (workbookManager == null)
+            // Read-only, so that the modification time the compiled dictionary depends on is kept
+            workbookManager = new WorkbookManager(dictionaryFilePath.toString(), true);
+
+        var sheetDataExtractor = new SheetDataExtractor(
                 workbookManager.getWorkbook().getSheetAt(
                         workbookManager.getWorkbook().getActiveSheetIndex())
         );
-    }
 
-    public String[][] getDictionary() {
         return Arrays.stream(sheetDataExtractor.extractValues())
                 .map(row -> Arrays.stream(row)
                         .map(CellValue::toString)
@@ -25,7 +55,72 @@ public class LocalizationDictionaryProvider {
                 .toArray(String[][]::new);
     }
 
+    /**
+     * @return the dictionary compiled from the workbook, mapped from the cache unless the workbook
+     *         has changed since it was compiled.
+     */
+    public LocalizationDictionary getCompiledDictionary() throws IOException, InvalidFormatException {
+
+        // Read before the workbook is opened, so that a change while it is read invalidates the cache
+        var attributes = Files.readAttributes(dictionaryFilePath, BasicFileAttributes.class);
+        String sourcePath = dictionaryFilePath.toString();
+        long sourceSize = attributes.size();
+        long sourceLastModified = attributes.lastModifiedTime().toMillis();
+
+        Path cacheFile = getCacheFile();
+        CompiledLocalizationDictionary cachedDictionary
+                = mapCachedDictionary(cacheFile, sourcePath, sourceSize, sourceLastModified);
+
+        if (cachedDictionary != null)
+            return cachedDictionary;
+
+        byte[] image = CompiledLocalizationDictionary.compile(getDictionary(), sourcePath, sourceSize, sourceLastModified);
+
+        Path temporaryFile = null;
+
+        try {
+            Files.createDirectories(cacheDirectory);
+            temporaryFile = Files.createTempFile(cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+            Files.write(temporaryFile, image);
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            // The cache may be read-only, or still mapped on platforms that forbid replacing mapped files
+            if (temporaryFile != null)
+                Files.deleteIfExists(temporaryFile);
+        }
+
+        return new CompiledLocalizationDictionary(ByteBuffer.wrap(image));
+    }
+
+    /**
+     * @return the cache file of the workbook, named after it and the hash of its absolute path.
+     */
+    Path getCacheFile() {
+        return cacheDirectory.resolve(dictionaryFilePath.getFileName() + "-"
+                                      + Integer.toHexString(dictionaryFilePath.toString().hashCode()) + ".dict");
+    }
+
+    /**
+     * @return the cached dictionary, or null if it is missing or was compiled from another workbook.
+     */
+    private static CompiledLocalizationDictionary mapCachedDictionary(
+            Path cacheFile, String sourcePath, long sourceSize, long sourceLastModified) {
+
+        if (!Files.isRegularFile(cacheFile))
+            return null;
+
+        try {
+            var dictionary = CompiledLocalizationDictionary.map(cacheFile);
+            return dictionary.isCompiledFrom(sourcePath, sourceSize, sourceLastModified) ? dictionary : null;
+        } catch (IOException | RuntimeException e) {
+            // An unreadable or corrupted cache is compiled again
+            return null;
+        }
+    }
+
     public void close() throws IOException {
-        workbookManager.close();
+
+        if (workbookManager != null)
+            workbookManager.close();
     }
 }
@@ -0,0 +1,44 @@
+package ogs.data.core;
+
+import java.util.BitSet;
+
+/**
+ * Describes a change of {@link CellData}: which columns hold different values afterward,
+ * and which rows were touched.
+ */
+public class ModelChangeEvent {
+
+    private final BitSet changedColumns;
+    private final BitSet changedRows;
+    private final boolean structural;
+
+    /**
+     * @param changedColumns the columns whose values changed, indexed as they are after the change.
+     * @param changedRows    the rows that were updated or removed, indexed as they were before the change.
+     * @param structural     {@code true} if rows or columns were added or removed.
+     */
+    public ModelChangeEvent(BitSet changedColumns, BitSet changedRows, boolean structural) {
+        this.changedColumns = changedColumns;
+        this.changedRows = changedRows;
+        this.structural = structural;
+    }
+
+    /**
+     * @return the columns whose values changed. After a structural change, a column that only moved
+     * to another index counts as changed as well.
+     */
+    public BitSet getChangedColumns() {
+        return (BitSet) changedColumns.clone();
+    }
+
+    /**
+     * @return the rows that were updated, or, after a structural change, removed.
+     */
+    public BitSet getChangedRows() {
+        return (BitSet) changedRows.clone();
+    }
+
+    public boolean isStructural() {
+        return structural;
+    }
+}
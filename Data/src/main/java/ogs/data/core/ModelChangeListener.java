@@ -1,5 +1,5 @@
 package ogs.data.core;
 
 public interface ModelChangeListener {
-    void onModelChanged();
+    void onModelChanged(ModelChangeEvent event);
 }
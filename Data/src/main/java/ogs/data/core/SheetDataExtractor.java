@@ -16,8 +16,27 @@ public class SheetDataExtractor {
         this.sheet = sheet;
     }
 
+    /**
+     * For extractors that read the sheet without a usermodel {@link Sheet}.
+     * Such extractors override {@link #extractValues()} and {@link #getSheetName()}.
+     */
+    protected SheetDataExtractor() {
+        this.sheet = null;
+    }
+
+    /**
+     * Sheets of one workbook are extracted one at a time, since the usermodel is not thread-safe
+     * and extraction removes the rows it has read.
+     */
     public CellValue[][] extractValues() {
 
+        synchronized (sheet.getWorkbook()) {
+            return extractValuesFromSheet();
+        }
+    }
+
+    private CellValue[][] extractValuesFromSheet() {
+
         int rowCount = sheet.getLastRowNum() + 1;
         if (rowCount <= 0) return null;
 
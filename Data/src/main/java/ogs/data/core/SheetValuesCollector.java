@@ -0,0 +1,65 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Assembles cells delivered one at a time by event-driven readers into the same
+ * row-wise layout {@link SheetDataExtractor#extractValues()} produces:
+ * rows without cells are omitted, every row spans up to its last cell record
+ * and cells missing in between are {@code _NONE} values.
+ */
+class SheetValuesCollector {
+
+    private final SortedMap<Integer, List<CellValue>> rows = new TreeMap<>();
+    private boolean anyRowSeen = false;
+
+    /**
+     * Registers a row even if no cells follow, so that a sheet made of empty rows
+     * yields an empty array rather than {@code null}.
+     */
+    void addRow() {
+        anyRowSeen = true;
+    }
+
+    void addCell(int rowIndex, int columnIndex, CellValue cellValue) {
+
+        anyRowSeen = true;
+
+        List<CellValue> row = rows.computeIfAbsent(rowIndex, index -> new ArrayList<>());
+
+        while (row.size() <= columnIndex)
+            row.add(null);
+
+        row.set(columnIndex, cellValue);
+    }
+
+    CellValue[][] toArray() {
+
+        if (!anyRowSeen)
+            return null;
+
+        CellValue[][] rowValues = new CellValue[rows.size()][];
+        int rowId = 0;
+
+        for (List<CellValue> row : rows.values()) {
+
+            CellValue[] cellValues = new CellValue[row.size()];
+
+            for (int cellId = 0; cellId < cellValues.length; cellId++) {
+                CellValue cellValue = row.get(cellId);
+                cellValues[cellId] = cellValue != null ? cellValue : new CellValue((Cell) null);
+            }
+
+            rowValues[rowId++] = cellValues;
+        }
+
+        rows.clear();
+
+        return rowValues;
+    }
+}
@@ -0,0 +1,41 @@
+package ogs.data.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a dense {@code int} code to every distinct string, so that columns can store
+ * strings as codes and equal strings are held in memory only once. Codes are assigned
+ * in order of first appearance, starting at 0.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    public int encode(String value) {
+
+        Integer code = codes.get(value);
+
+        if (code == null) {
+            code = strings.size();
+            strings.add(value);
+            codes.put(value, code);
+        }
+
+        return code;
+    }
+
+    public String decode(int code) {
+        return strings.get(code);
+    }
+
+    /**
+     * @return the number of distinct strings, which is also the upper bound (exclusive) of the codes.
+     */
+    public int size() {
+        return strings.size();
+    }
+}
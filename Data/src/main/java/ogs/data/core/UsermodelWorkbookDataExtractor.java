@@ -0,0 +1,67 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * A {@link WorkbookDataExtractor} reading a usermodel {@link Workbook} loaded in memory.
+ */
+public class UsermodelWorkbookDataExtractor extends WorkbookDataExtractor {
+
+    Workbook workbook;
+
+    public UsermodelWorkbookDataExtractor(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    @Override
+    public boolean tryExtractMetadata() {
+
+        XSSFWorkbook xssfWorkbook;
+
+        if (workbook instanceof SXSSFWorkbook sxssfWorkbook) {
+            xssfWorkbook = sxssfWorkbook.getXSSFWorkbook();
+        }
+        else if (workbook instanceof XSSFWorkbook) {
+            xssfWorkbook = (XSSFWorkbook) workbook;
+        }
+        else { // if no CoreProperties to look for
+            return false;
+        }
+
+        var coreProperties = xssfWorkbook.getProperties().getCoreProperties();
+        title = coreProperties.getTitle();
+        creator = coreProperties.getCreator();
+        lastModifiedByUser = coreProperties.getLastModifiedByUser();
+        description = coreProperties.getDescription();
+        keywords = coreProperties.getKeywords();
+        langTag = coreProperties.getUnderlyingProperties().getLanguageProperty().orElse(null);
+
+        return true;
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return workbook.getNumberOfSheets();
+    }
+
+    @Override
+    public SheetDataExtractor getSheetDataExtractorAtOrActive1Based(int sheetId1Based) {
+        return new SheetDataExtractor(getSheetAtOrActive1Based(sheetId1Based));
+    }
+
+    public Sheet getSheetAtOrActive1Based(int sheetId1Based) {
+        return getSheetAtOrActive(sheetId1Based - 1);
+    }
+
+    public Sheet getSheetAtOrActive(int sheetId) {
+        try {
+            return workbook.getSheetAt(sheetId);
+        }
+        catch (IllegalArgumentException ex) {
+            return workbook.getSheetAt(workbook.getActiveSheetIndex());
+        }
+    }
+}
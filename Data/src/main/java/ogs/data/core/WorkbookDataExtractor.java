@@ -1,65 +1,41 @@
 package ogs.data.core;
 
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.ArrayList;
+import java.util.List;
 
-public class WorkbookDataExtractor {
+/**
+ * Extracts the metadata and the sheets of a workbook. Sheets are only read through the
+ * {@link SheetDataExtractor}s handed out, so that implementations need not build usermodel sheets.
+ */
+public abstract class WorkbookDataExtractor {
 
-    Workbook workbook;
+    protected String title;
+    protected String creator;
+    protected String lastModifiedByUser;
+    protected String description;
+    protected String keywords;
+    protected String langTag;
 
-    private String title;
-    private String creator;
-    private String lastModifiedByUser;
-    private String description;
-    private String keywords;
-    private String langTag;
+    public abstract boolean tryExtractMetadata();
 
-    public WorkbookDataExtractor(Workbook workbook) {
-        this.workbook = workbook;
-    }
+    public abstract int getNumberOfSheets();
 
-    public boolean tryExtractMetadata() {
-
-        XSSFWorkbook xssfWorkbook;
-
-        if (workbook instanceof SXSSFWorkbook sxssfWorkbook) {
-            xssfWorkbook = sxssfWorkbook.getXSSFWorkbook();
-        }
-        else if (workbook instanceof XSSFWorkbook) {
-            xssfWorkbook = (XSSFWorkbook) workbook;
-        }
-        else { // if no CoreProperties to look for
-            return false;
-        }
-
-        var coreProperties = xssfWorkbook.getProperties().getCoreProperties();
-        title = coreProperties.getTitle();
-        creator = coreProperties.getCreator();
-        lastModifiedByUser = coreProperties.getLastModifiedByUser();
-        description = coreProperties.getDescription();
-        keywords = coreProperties.getKeywords();
-        langTag = coreProperties.getUnderlyingProperties().getLanguageProperty().orElse(null);
-
-        return true;
-    }
+    /**
+     * @return the extractor of the sheet, or of the active sheet if there is no sheet with that id.
+     */
+    public abstract SheetDataExtractor getSheetDataExtractorAtOrActive1Based(int sheetId1Based);
 
-    public int getNumberOfSheets() {
-        return workbook.getNumberOfSheets();
-    }
+    /**
+     * @return the extractors of all sheets, in order.
+     */
+    public List<SheetDataExtractor> getSheetDataExtractors() {
 
-    public Sheet getSheetAtOrActive1Based(int sheetId1Based) {
-        return getSheetAtOrActive(sheetId1Based - 1);
-    }
+        List<SheetDataExtractor> extractors = new ArrayList<>();
+
+        for (int sheetId = 1; sheetId <= getNumberOfSheets(); sheetId++)
+            extractors.add(getSheetDataExtractorAtOrActive1Based(sheetId));
 
-    public Sheet getSheetAtOrActive(int sheetId) {
-        try {
-            return workbook.getSheetAt(sheetId);
-        }
-        catch (IllegalArgumentException ex) {
-            return workbook.getSheetAt(workbook.getActiveSheetIndex());
-        }
+        return extractors;
     }
 
     public String getTitle() {
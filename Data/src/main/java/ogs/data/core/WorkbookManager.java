@@ -11,7 +11,12 @@ public class WorkbookManager implements AutoCloseable {
 
     public WorkbookManager(String filePath)
             throws IOException, InvalidFormatException {
-        this.workbook = fileManager.read(filePath);
+        this(filePath, false);
+    }
+
+    public WorkbookManager(String filePath, boolean readOnly)
+            throws IOException, InvalidFormatException {
+        this.workbook = fileManager.read(filePath, readOnly);
     }
 
     public Workbook getWorkbook() {
@@ -0,0 +1,164 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler for a single worksheet part that turns {@code <c>} elements into typed
+ * {@link CellValue}s the same way {@link CellValue#CellValue(org.apache.poi.ss.usermodel.Cell)}
+ * does for usermodel cells: formulas resolve to their cached results, numbers in date
+ * formats become dates, blank and error cells become {@code _NONE}.
+ *
+ * <p>Modelled on POI's {@code XSSFSheetXMLHandler}, which only hands formatted
+ * strings to its {@code SheetContentsHandler} and therefore loses the cell types
+ * the analysis relies on.
+ */
+class XSSFSheetValuesHandler extends DefaultHandler {
+
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final SheetValuesCollector collector;
+
+    // Position
+    private int rowIndex = -1;
+    private int columnIndex = -1;
+
+    // Current cell
+    private String cellType;
+    private int styleIndex;
+    private boolean hasFormula;
+    private boolean hasValue;
+    private boolean hasInlineString;
+    private final StringBuilder valueText = new StringBuilder();
+    private final StringBuilder inlineText = new StringBuilder();
+
+    // Parser state
+    private boolean readingValue;
+    private boolean readingInlineString;
+    private boolean readingInlineText;
+    private boolean readingPhoneticRun;
+
+    XSSFSheetValuesHandler(SharedStrings sharedStrings,
+                           StylesTable styles,
+                           boolean date1904,
+                           SheetValuesCollector collector) {
+
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        this.date1904 = date1904;
+        this.collector = collector;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+
+        switch (localName) {
+            case "row" -> {
+                String reference = attributes.getValue("r");
+                rowIndex = reference != null ? Integer.parseInt(reference) - 1 : rowIndex + 1;
+                columnIndex = -1;
+                collector.addRow();
+            }
+            case "c" -> {
+                String reference = attributes.getValue("r");
+                columnIndex = reference != null ? new CellReference(reference).getCol() : columnIndex + 1;
+
+                String style = attributes.getValue("s");
+                styleIndex = style != null ? Integer.parseInt(style) : 0;
+                cellType = attributes.getValue("t");
+
+                hasFormula = false;
+                hasValue = false;
+                hasInlineString = false;
+                valueText.setLength(0);
+                inlineText.setLength(0);
+            }
+            case "f" -> hasFormula = true;
+            case "v" -> {
+                hasValue = true;
+                readingValue = true;
+            }
+            case "is" -> {
+                hasInlineString = true;
+                readingInlineString = true;
+            }
+            case "rPh" -> readingPhoneticRun = true;
+            case "t" -> readingInlineText = readingInlineString && !readingPhoneticRun;
+            default -> { }
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+
+        switch (localName) {
+            case "c" -> collector.addCell(rowIndex, columnIndex, toCellValue());
+            case "v" -> readingValue = false;
+            case "is" -> readingInlineString = false;
+            case "rPh" -> readingPhoneticRun = false;
+            case "t" -> readingInlineText = false;
+            default -> { }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+
+        if (readingValue)
+            valueText.append(ch, start, length);
+        else if (readingInlineText)
+            inlineText.append(ch, start, length);
+    }
+
+    private CellValue toCellValue() {
+
+        String value = valueText.toString();
+
+        return switch (cellType == null ? "n" : cellType) {
+            case "s" -> new CellValue(hasValue
+                    ? sharedStrings.getItemAt(Integer.parseInt(value.strip())).getString()
+                    : null);
+            case "inlineStr" -> new CellValue(hasInlineString
+                    ? inlineText.toString()
+                    : hasValue ? value : null);
+            case "str" -> new CellValue(hasValue ? value : null);
+            case "b" -> new CellValue(hasValue && "1".equals(value));
+            case "n" -> {
+                // A plain number cell without a value is blank
+                if (!hasValue && !hasFormula)
+                    yield new CellValue((String) null);
+
+                double number = hasValue ? Double.parseDouble(value) : 0.0;
+
+                yield isDateFormatted(number)
+                        ? new CellValue(DateUtil.getJavaDate(number, date1904))
+                        : new CellValue(number);
+            }
+            default -> new CellValue((String) null); // errors
+        };
+    }
+
+    private boolean isDateFormatted(double number) {
+
+        if (!DateUtil.isValidExcelDate(number)
+            || styles == null
+            || styles.getNumCellStyles() <= 0)
+            return false;
+
+        CellStyle style = styles.getStyleAt(styleIndex);
+
+        if (style == null)
+            return false;
+
+        ExcelNumberFormat numberFormat = ExcelNumberFormat.from(style);
+
+        return numberFormat != null && DateUtil.isADateFormat(numberFormat);
+    }
+}
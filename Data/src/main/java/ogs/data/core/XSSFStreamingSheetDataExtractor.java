@@ -0,0 +1,67 @@
+package ogs.data.core;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Extracts the values of a single .xlsx/.xlsm sheet by streaming its XML part
+ * through {@link XSSFSheetValuesHandler} instead of building an {@code XSSFSheet}.
+ * Only the extracted {@link CellValue}s are kept in memory.
+ */
+public class XSSFStreamingSheetDataExtractor extends SheetDataExtractor {
+
+    private final XSSFReader reader;
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final String sheetRelationshipId;
+    private final String sheetName;
+
+    XSSFStreamingSheetDataExtractor(XSSFReader reader,
+                                    SharedStrings sharedStrings,
+                                    StylesTable styles,
+                                    boolean date1904,
+                                    String sheetRelationshipId,
+                                    String sheetName) {
+
+        this.reader = reader;
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        this.date1904 = date1904;
+        this.sheetRelationshipId = sheetRelationshipId;
+        this.sheetName = sheetName;
+    }
+
+    @Override
+    public CellValue[][] extractValues() {
+
+        SheetValuesCollector collector = new SheetValuesCollector();
+
+        try (InputStream sheetData = reader.getSheet(sheetRelationshipId)) {
+
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetValuesHandler(sharedStrings, styles, date1904, collector));
+            parser.parse(new InputSource(sheetData));
+
+        } catch (IOException | SAXException | ParserConfigurationException | OpenXML4JException e) {
+            throw new RuntimeException("Could not read the sheet \"" + sheetName + "\".", e);
+        }
+
+        return collector.toArray();
+    }
+
+    @Override
+    public String getSheetName() {
+        return sheetName;
+    }
+}
@@ -0,0 +1,109 @@
+package ogs.data.core;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackageProperties;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.xml.sax.SAXException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link WorkbookDataExtractor} for .xlsx/.xlsm files built on the XSSF event model.
+ * Only the package index, the workbook part, shared strings and styles are loaded up front;
+ * sheets are streamed one at a time by {@link XSSFStreamingSheetDataExtractor}.
+ * The sheet extractors only read the shared tables and each parses its own part stream,
+ * so they may run concurrently.
+ */
+public class XSSFStreamingWorkbookDataExtractor extends WorkbookDataExtractor implements Closeable {
+
+    private final OPCPackage opcPackage;
+    private final XSSFReader reader;
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final CTSheet[] sheets;
+    private final int activeSheetIndex;
+    private final boolean date1904;
+
+    public XSSFStreamingWorkbookDataExtractor(String filePath) throws IOException, InvalidFormatException {
+
+        opcPackage = OPCPackage.open(filePath, PackageAccess.READ);
+
+        try {
+            reader = new XSSFReader(opcPackage);
+            sharedStrings = new ReadOnlySharedStringsTable(opcPackage, false);
+            styles = reader.getStylesTable();
+
+            CTWorkbook workbook;
+            try (InputStream workbookData = reader.getWorkbookData()) {
+                workbook = WorkbookDocument.Factory.parse(workbookData).getWorkbook();
+            }
+
+            sheets = workbook.getSheets().getSheetArray();
+            activeSheetIndex = workbook.isSetBookViews() && workbook.getBookViews().sizeOfWorkbookViewArray() > 0
+                    ? (int) workbook.getBookViews().getWorkbookViewArray(0).getActiveTab()
+                    : 0;
+            date1904 = workbook.isSetWorkbookPr() && workbook.getWorkbookPr().getDate1904();
+
+        } catch (OpenXML4JException | SAXException | XmlException | RuntimeException e) {
+            opcPackage.revert();
+            throw new IOException("Cannot read the workbook structure of " + filePath, e);
+        }
+    }
+
+    @Override
+    public boolean tryExtractMetadata() {
+
+        PackageProperties properties;
+
+        try {
+            properties = opcPackage.getPackageProperties();
+        } catch (InvalidFormatException e) {
+            return false;
+        }
+
+        title = properties.getTitleProperty().orElse(null);
+        creator = properties.getCreatorProperty().orElse(null);
+        lastModifiedByUser = properties.getLastModifiedByProperty().orElse(null);
+        description = properties.getDescriptionProperty().orElse(null);
+        keywords = properties.getKeywordsProperty().orElse(null);
+        langTag = properties.getLanguageProperty().orElse(null);
+
+        return true;
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return sheets.length;
+    }
+
+    @Override
+    public SheetDataExtractor getSheetDataExtractorAtOrActive1Based(int sheetId1Based) {
+
+        int sheetId = sheetId1Based - 1;
+
+        if (sheetId < 0 || sheetId >= sheets.length)
+            sheetId = activeSheetIndex;
+
+        CTSheet sheet = sheets[sheetId];
+
+        return new XSSFStreamingSheetDataExtractor(
+                reader, sharedStrings, styles, date1904, sheet.getId(), sheet.getName());
+    }
+
+    @Override
+    public void close() {
+        opcPackage.revert(); // read-only: close without saving
+    }
+}
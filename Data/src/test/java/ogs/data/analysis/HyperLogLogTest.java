@@ -0,0 +1,53 @@
+package ogs.data.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void testEstimateIsWithinThreeStandardErrors() {
+
+        for (double relativeError : new double[]{0.1, 0.02, 0.005}) {
+            for (int cardinality : new int[]{1, 100, 10_000, 200_000, 1_000_000}) {
+
+                HyperLogLog sketch = new HyperLogLog(relativeError);
+
+                // Every value twice, as duplicates must not count
+                for (int i = 0; i < 2 * cardinality; i++)
+                    sketch.add(HyperLogLog.hash(i % cardinality));
+
+                double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+
+                assertTrue(error <= 3 * sketch.getRelativeError(),
+                        "Estimate of " + cardinality + " is off by " + error + " at " + relativeError);
+            }
+        }
+    }
+
+    @Test
+    void testStringEstimate() {
+
+        HyperLogLog sketch = new HyperLogLog(0.01);
+
+        for (int i = 0; i < 50_000; i++)
+            sketch.add(HyperLogLog.hash("value " + i));
+
+        assertEquals(50_000, sketch.estimate(), 3 * sketch.getRelativeError() * 50_000);
+    }
+
+    @Test
+    void testEmptySketch() {
+        assertEquals(0, new HyperLogLog(0.01).estimate());
+    }
+
+    @Test
+    void testRegisterCountFollowsError() {
+
+        assertEquals(1.04 / Math.sqrt(16), new HyperLogLog(0.5).getRelativeError());
+        assertEquals(1.04 / Math.sqrt(16384), new HyperLogLog(0.01).getRelativeError());
+        assertTrue(new HyperLogLog(0.01).getRelativeError() <= 0.01);
+        assertEquals(1.04 / Math.sqrt(65536), new HyperLogLog(0.0001).getRelativeError());
+    }
+}
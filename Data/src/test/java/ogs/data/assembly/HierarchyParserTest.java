@@ -0,0 +1,85 @@
+package ogs.data.assembly;
+
+import ogs.model.ontology.ClassDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ogs.model.core.TableAnalysisConcept.ClassColumn;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchyParserTest {
+
+    @Test
+    void testBeginsWithIndicator() {
+
+        assertEquals(List.of("Animal", "Dog<Animal", "Puppy<Dog", "Cat<Animal", "Plant", "Tree<Plant"),
+                parse("-", "Animal", "-Dog", "--Puppy", "-Cat", "Plant", "-Tree"));
+    }
+
+    @Test
+    void testRootAfterNestedRows() {
+
+        // The root closes every open level, and a repeated id resolves to its first resource
+        List<ClassDTO> classes = HierarchyParser.parseHierarchy(
+                new String[]{"Animal", "-Dog", "--Puppy", "Plant", "-Tree", "Animal", "-Cat"},
+                "-", new ResourceDTOFactoryProvider(ClassColumn));
+
+        assertEquals(List.of("Animal", "Dog<Animal", "Puppy<Dog", "Plant", "Tree<Plant", "Animal", "Cat<Animal"),
+                describe(classes));
+        assertSame(classes.get(0), classes.get(6).getAncestors().getFirst());
+        assertEquals(List.of(classes.get(1), classes.get(6)), classes.get(0).getDescendants());
+    }
+
+    @Test
+    void testContainsIndicator() {
+
+        // The leading indicators of the last row skip a level, so they cannot be the levels
+        assertEquals(List.of("Animal", "Dog<Animal", "Puppy<Dog", "Cat<Animal"),
+                parse("-", "Animal", "Dog-", "--Puppy", "-Cat"));
+    }
+
+    @Test
+    void testFlatFallback() {
+
+        // A skipped level, and a first row with an indicator
+        assertEquals(List.of("Animal", "Puppy"), parse("-", "Animal", "--Puppy"));
+        assertEquals(List.of("Animal", "Dog"), parse("-", "-Animal", "Dog"));
+        assertEquals(List.of("Animal", "-Dog"), parse(null, "Animal", "-Dog"));
+        assertEquals(List.of("Animal", "-Dog"), parse("", "Animal", "-Dog"));
+        assertEquals(List.of(), parse("-"));
+    }
+
+    @Test
+    void testBlankIdAndNullRow() {
+
+        assertEquals(List.of("Animal", "Dog"), parse("-", "Animal", "-  ", "-Dog"));
+        assertEquals(List.of("Animal", "Dog"), parse("-", "Animal", "   ", "-Dog"));
+        assertEquals(List.of("Animal", "Dog"), parse("-", "Animal", "--", "-Dog"));
+        assertEquals(List.of("Animal", "Dog"), parse("-", "Animal", null, "-Dog"));
+    }
+
+    @Test
+    void testIndicatorIsMatchedLiterally() {
+
+        assertEquals(List.of("Animal", "Dog<Animal", "Puppy<Dog"), parse(".", "Animal", ".Dog", "..Puppy"));
+        assertEquals(List.of("Animal", "Dog<Animal", "Puppy<Dog"), parse("+*", "Animal", "Dog+*", "+*+*Puppy"));
+        assertEquals(List.of("Animal", "Dog"), parse("\\d", "Animal", "\\d\\dDog"));
+    }
+
+    private static List<String> parse(String indicator, String... hierarchy) {
+        return describe(HierarchyParser.parseHierarchy(hierarchy, indicator, new ResourceDTOFactoryProvider(ClassColumn)));
+    }
+
+    /**
+     * @return every class as its id, followed by the ids of its ancestors after a '<'. Ancestors are
+     * listed once, as {@link ClassDTO#addAncestor} records an ancestor both directly and through its descendant.
+     */
+    private static List<String> describe(List<ClassDTO> classes) {
+
+        return classes.stream()
+                .map(dto -> dto.getId() + dto.getAncestors().stream().distinct().map(ancestor -> "<" + ancestor.getId())
+                        .reduce("", String::concat))
+                .toList();
+    }
+}
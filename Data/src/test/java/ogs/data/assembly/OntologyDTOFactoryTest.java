@@ -0,0 +1,97 @@
+package ogs.data.assembly;
+
+import ogs.data.analysis.SheetAnalyzer;
+import ogs.data.core.CellValue;
+import ogs.data.core.SheetDataExtractor;
+import ogs.model.core.AnalysisKeywordDictionary;
+import ogs.model.ontology.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ogs.model.core.TableAnalysisConcept.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OntologyDTOFactoryTest {
+
+    @Test
+    void testRowWithoutIdentifierKeepsTheOtherRowsAligned() {
+
+        SheetAnalyzer sheetAnalyzer = analyze(new CellValue[][]{
+                row("Id", "Name", "Note", "Weight"),
+                row("A1", "Apple", "Red", 1.0),
+                row("", "Ghost", "Nobody", 2.0),
+                row("C3", "Cherry", "Small", 3.0),
+                row("D4", "Date", "Sweet", 4.0)
+        });
+
+        assertEquals(IdentifierColumn, sheetAnalyzer.getColumnAnalyzers()[0].getDefinition());
+        assertEquals(LabelColumn, sheetAnalyzer.getColumnAnalyzers()[1].getDefinition());
+
+        Map<String, IndividualDTO> individuals = new OntologyDTOFactory(sheetAnalyzer).getAllResources().stream()
+                .filter(resource -> resource instanceof IndividualDTO)
+                .map(resource -> (IndividualDTO) resource)
+                .collect(Collectors.toMap(ResourceDTO::getId, individual -> individual));
+
+        assertEquals(3, individuals.size());
+        assertIndividual(individuals.get("A1"), "Apple", "Red", 1.0);
+        assertIndividual(individuals.get("C3"), "Cherry", "Small", 3.0);
+        assertIndividual(individuals.get("D4"), "Date", "Sweet", 4.0);
+    }
+
+    private static void assertIndividual(IndividualDTO individual, String label, String comment, double weight) {
+
+        assertNotNull(individual);
+        assertEquals(List.of(label), values(individual, AnnotationPropertyType.label));
+        assertEquals(List.of(comment), values(individual, AnnotationPropertyType.comment));
+        assertEquals(List.of(weight), individual.getDataProperties().stream()
+                .map(DataPropertyAssertion::value)
+                .toList());
+    }
+
+    private static List<String> values(IndividualDTO individual, AnnotationPropertyType type) {
+        return individual.getAnnotationProperties().stream()
+                .filter(annotation -> annotation.type() == type)
+                .map(AnnotationAssertion::value)
+                .toList();
+    }
+
+    private static SheetAnalyzer analyze(CellValue[][] values) {
+
+        AnalysisKeywordDictionary keywords = new AnalysisKeywordDictionary();
+        keywords.put("Id", IdentifierColumn);
+        keywords.put("Name", LabelColumn);
+        keywords.put("Note", CommentColumn);
+        keywords.put("Weight", DataPropertyColumn);
+
+        SheetAnalyzer sheetAnalyzer = new SheetAnalyzer(new SheetDataExtractor() {
+
+            @Override
+            public CellValue[][] extractValues() {
+                return values;
+            }
+
+            @Override
+            public String getSheetName() {
+                return "Fruits";
+            }
+        }, keywords, "-");
+
+        sheetAnalyzer.initialize();
+        sheetAnalyzer.analyze();
+
+        return sheetAnalyzer;
+    }
+
+    private static CellValue[] row(Object... values) {
+
+        CellValue[] row = new CellValue[values.length];
+
+        for (int i = 0; i < values.length; i++)
+            row[i] = values[i] instanceof Double number ? new CellValue(number) : new CellValue((String) values[i]);
+
+        return row;
+    }
+}
@@ -0,0 +1,194 @@
+package ogs.data.core;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.LittleEndian;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static ogs.data.core.XSSFStreamingWorkbookDataExtractorTest.assertSheetMatchesUsermodel;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HSSFEventWorkbookDataExtractorTest {
+
+    @TempDir
+    static Path directory;
+
+    private static File file;
+
+    @BeforeAll
+    static void writeWorkbook() throws IOException {
+
+        file = directory.resolve("source.xls").toFile();
+
+        try (Workbook workbook = new HSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            XSSFStreamingWorkbookDataExtractorTest.fillWorkbook(workbook);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+    }
+
+    @Test
+    void testSheetsMatchUsermodel() throws Exception {
+
+        var extractor = new HSSFEventWorkbookDataExtractor(file.getPath());
+
+        assertEquals(2, extractor.getNumberOfSheets());
+
+        // The second sheet first, so that it is read without the first
+        for (int sheetId = 2; sheetId >= 1; sheetId--)
+            assertSheetMatchesUsermodel(file, extractor, sheetId);
+    }
+
+    @Test
+    void testAllSheetsInOnePassMatchUsermodel() throws Exception {
+
+        List<SheetDataExtractor> sheetExtractors = new HSSFEventWorkbookDataExtractor(file.getPath())
+                .getSheetDataExtractors();
+
+        assertEquals(2, sheetExtractors.size());
+
+        for (int sheetId = 2; sheetId >= 1; sheetId--)
+            assertSheetMatchesUsermodel(file, sheetExtractors.get(sheetId - 1), sheetId);
+
+        // Extracted again, a sheet is read on its own
+        assertSheetMatchesUsermodel(file, sheetExtractors.get(0), 1);
+    }
+
+    @Test
+    void testInvalidSheetIdFallsBackToActiveSheet() throws Exception {
+
+        var extractor = new HSSFEventWorkbookDataExtractor(file.getPath());
+
+        assertEquals("Notes", extractor.getSheetDataExtractorAtOrActive1Based(0).getSheetName());
+        assertSheetMatchesUsermodel(file, extractor, 3);
+    }
+
+    /**
+     * HSSF writes numbers as NUMBER records only, so RK and MULRK records, as Excel writes them,
+     * are fed to the listener directly, with the globals of the workbook.
+     */
+    @Test
+    void testRKNumbersAndStringFormulaResults() throws Exception {
+
+        HSSFWorkbookGlobals globals = new HSSFWorkbookGlobals();
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(globals);
+
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(file, true)) {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem);
+        }
+
+        short dateXF;
+        try (HSSFWorkbook workbook = new HSSFWorkbook(new POIFSFileSystem(file, true))) {
+            dateXF = workbook.getSheet("Items").getRow(4).getCell(2).getCellStyle().getIndex();
+        }
+
+        SheetValuesCollector collector = new SheetValuesCollector();
+        var listener = new HSSFSheetValuesListener(globals, 0, 0, collector);
+
+        FormulaRecord stringFormula = formula(0, 4);
+        stringFormula.setCachedResultTypeString();
+        StringRecord string = new StringRecord();
+        string.setString("cached");
+        FormulaRecord stringFormulaWithoutString = formula(1, 0);
+        stringFormulaWithoutString.setCachedResultTypeString();
+        LabelSSTRecord label = new LabelSSTRecord();
+        label.setRow(1);
+        label.setColumn((short) 1);
+        label.setSSTIndex(0);
+
+        List<Record> records = List.of(
+                BOFRecord.createSheetBOF(),
+                new RowRecord(0),
+                new RowRecord(1),
+                // 45000 as an integer RK, and 1.5 as an RK of the high bits of the double
+                new RKRecord(recordData(RKRecord.sid, rk(0, 0, dateXF, 45000 << 2 | 2))),
+                new MulRKRecord(recordData(MulRKRecord.sid, mulRK(0, 1, (short) 15, dateXF, 0x3FF80000))),
+                stringFormula,
+                string,
+                stringFormulaWithoutString,
+                label,
+                EOFRecord.instance);
+
+        short result = 0;
+        for (Record record : records)
+            result = listener.abortableProcessRecord(record);
+
+        assertEquals(1, result, "The end of the only collected sheet aborts processing");
+
+        CellValue[][] values = collector.toArray();
+
+        assertEquals(2, values.length);
+        assertEquals(DateUtil.getJavaDate(45000, false), values[0][0].getValue());
+        assertEquals(45000.0, values[0][1].getDouble());
+        assertEquals(DateUtil.getJavaDate(1.5, false), values[0][2].getValue());
+        assertEquals("cached", values[0][4].getString());
+        assertTrue(values[1][0].isNull());
+        assertEquals(globals.getSharedString(0), values[1][1].getString());
+        assertEquals(CellType.STRING, values[1][1].getType());
+    }
+
+    private static FormulaRecord formula(int row, int column) {
+
+        FormulaRecord formula = new FormulaRecord();
+        formula.setRow(row);
+        formula.setColumn((short) column);
+        formula.setXFIndex((short) 15);
+        return formula;
+    }
+
+    private static byte[] rk(int row, int column, short xf, int rk) {
+
+        byte[] data = new byte[10];
+        LittleEndian.putUShort(data, 0, row);
+        LittleEndian.putUShort(data, 2, column);
+        LittleEndian.putShort(data, 4, xf);
+        LittleEndian.putInt(data, 6, rk);
+        return data;
+    }
+
+    /**
+     * @return the data of a MULRK record of the two columns from {@code firstColumn}: 45000 and the RK.
+     */
+    private static byte[] mulRK(int row, int firstColumn, short firstXF, short secondXF, int secondRK) {
+
+        byte[] data = new byte[18];
+        LittleEndian.putUShort(data, 0, row);
+        LittleEndian.putUShort(data, 2, firstColumn);
+        LittleEndian.putShort(data, 4, firstXF);
+        LittleEndian.putInt(data, 6, 45000 << 2 | 2);
+        LittleEndian.putShort(data, 10, secondXF);
+        LittleEndian.putInt(data, 12, secondRK);
+        LittleEndian.putUShort(data, 16, firstColumn + 1);
+        return data;
+    }
+
+    private static RecordInputStream recordData(short sid, byte[] data) {
+
+        byte[] bytes = new byte[4 + data.length];
+        LittleEndian.putShort(bytes, 0, sid);
+        LittleEndian.putUShort(bytes, 2, data.length);
+        System.arraycopy(data, 0, bytes, 4, data.length);
+
+        RecordInputStream in = new RecordInputStream(new ByteArrayInputStream(bytes));
+        in.nextRecord();
+        return in;
+    }
+}
@@ -0,0 +1,111 @@
+package ogs.data.core;
+
+import ogs.model.core.LocalizationDictionary;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalizationDictionaryProviderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCacheIsRecompiledWhenWorkbookChanges() throws Exception {
+
+        Path workbook = directory.resolve("dictionary.xlsx");
+        Path cacheDirectory = directory.resolve("cache");
+        writeWorkbook(workbook, "Hund");
+        FileTime lastModified = Files.getLastModifiedTime(workbook);
+
+        assertEquals("Hund", lookUpGermanDog(workbook, cacheDirectory));
+        // Read-only, the workbook is left untouched
+        assertEquals(lastModified, Files.getLastModifiedTime(workbook));
+
+        Path cacheFile = new LocalizationDictionaryProvider(workbook.toString(), cacheDirectory).getCacheFile();
+        assertTrue(Files.isRegularFile(cacheFile));
+
+        // A cache compiled from the workbook as it is now is used without opening the workbook
+        String path = workbook.toAbsolutePath().normalize().toString();
+        String[][] cachedRows = {{"Term", "de"}, {"dog", "Köter"}};
+        Files.write(cacheFile, CompiledLocalizationDictionary.compile(
+                cachedRows, path, Files.size(workbook), lastModified.toMillis()));
+
+        assertEquals("Köter", lookUpGermanDog(workbook, cacheDirectory));
+
+        // Only the modification time changes
+        Files.setLastModifiedTime(workbook, FileTime.fromMillis(lastModified.toMillis() + 2000));
+        assertEquals("Hund", lookUpGermanDog(workbook, cacheDirectory));
+
+        // Only the size changes
+        long size = Files.size(workbook);
+        Files.write(cacheFile, CompiledLocalizationDictionary.compile(cachedRows, path, size, lastModified.toMillis()));
+        writeWorkbook(workbook, "Hündchen");
+        Files.setLastModifiedTime(workbook, lastModified);
+        assertNotEquals(size, Files.size(workbook));
+
+        assertEquals("Hündchen", lookUpGermanDog(workbook, cacheDirectory));
+        assertTrue(CompiledLocalizationDictionary.map(cacheFile)
+                .isCompiledFrom(path, Files.size(workbook), lastModified.toMillis()));
+    }
+
+    @Test
+    void testCorruptedCacheIsRecompiled() throws Exception {
+
+        Path workbook = directory.resolve("dictionary.xlsx");
+        Path cacheDirectory = directory.resolve("cache");
+        writeWorkbook(workbook, "Hund");
+
+        Path cacheFile = new LocalizationDictionaryProvider(workbook.toString(), cacheDirectory).getCacheFile();
+        Files.createDirectories(cacheDirectory);
+        Files.write(cacheFile, new byte[]{1, 2, 3});
+
+        assertEquals("Hund", lookUpGermanDog(workbook, cacheDirectory));
+    }
+
+    private static String lookUpGermanDog(Path workbook, Path cacheDirectory) throws Exception {
+
+        var provider = new LocalizationDictionaryProvider(workbook.toString(), cacheDirectory);
+
+        try {
+            LocalizationDictionary dictionary = provider.getCompiledDictionary();
+            int dogRow = dictionary.findTerm("DOG").row();
+
+            for (int column = 0; column < dictionary.getColumnCount(0); column++)
+                if ("de".equals(dictionary.getTerm(0, column)))
+                    return dictionary.getTerm(dogRow, column);
+
+            return null;
+        } finally {
+            provider.close();
+        }
+    }
+
+    private static void writeWorkbook(Path file, String germanDog) throws IOException {
+
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Term");
+            header.createCell(1).setCellValue("en");
+            header.createCell(2).setCellValue("de");
+            Row dog = sheet.createRow(1);
+            dog.createCell(0).setCellValue("dog");
+            dog.createCell(1).setCellValue("dog");
+            dog.createCell(2).setCellValue(germanDog);
+            workbook.write(out);
+        }
+    }
+}
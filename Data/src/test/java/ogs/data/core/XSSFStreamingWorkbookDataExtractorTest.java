@@ -0,0 +1,170 @@
+package ogs.data.core;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XSSFStreamingWorkbookDataExtractorTest {
+
+    @TempDir
+    static Path directory;
+
+    private static File file;
+
+    @BeforeAll
+    static void writeWorkbook() throws IOException {
+
+        file = directory.resolve("source.xlsx").toFile();
+
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            fillWorkbook(workbook);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+    }
+
+    /**
+     * Fills two sheets with strings repeated through the shared strings table, numbers, dates, booleans,
+     * cached formula results, blank cells and rows without cells; the second sheet is the active one.
+     */
+    static void fillWorkbook(Workbook workbook) {
+
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle builtInDateStyle = workbook.createCellStyle();
+        builtInDateStyle.setDataFormat((short) 14);
+
+        Sheet items = workbook.createSheet("Items");
+        setCells(items.createRow(0), "Name", "Count", "Created", "Double", "Label", "Active", "Large");
+
+        Row first = items.createRow(1);
+        setCells(first, "Apple", 3.0, null, null, null, true);
+        setDate(first.createCell(2), dateStyle, 2024, Calendar.FEBRUARY, 29);
+        first.createCell(3).setCellFormula("B2*2");
+        first.createCell(4).setCellFormula("CONCATENATE(A2,\"-\",B2)");
+        first.createCell(6).setCellFormula("B2>2");
+
+        // Row 3 is left out; row 4 only has a late cell and a blank one
+        Row sparse = items.createRow(3);
+        sparse.createCell(1).setBlank();
+        sparse.createCell(5).setCellValue("Apple");
+
+        Row last = items.createRow(4);
+        setCells(last, "Pear", -0.25, null, null, " ", false, 1234567890123.0);
+        setDate(last.createCell(2), builtInDateStyle, 1999, Calendar.DECEMBER, 31);
+        last.createCell(3).setCellFormula("1/0");
+        last.createCell(4).setCellFormula("\"\"");
+
+        Sheet notes = workbook.createSheet("Notes");
+        setCells(notes.createRow(2), null, "Apple", "Notes");
+        notes.createRow(5);
+        workbook.setActiveSheet(1);
+    }
+
+    private static void setCells(Row row, Object... values) {
+
+        for (int column = 0; column < values.length; column++) {
+            switch (values[column]) {
+                case String string -> row.createCell(column).setCellValue(string);
+                case Double number -> row.createCell(column).setCellValue(number);
+                case Boolean bool -> row.createCell(column).setCellValue(bool);
+                case null, default -> { }
+            }
+        }
+    }
+
+    private static void setDate(Cell cell, CellStyle style, int year, int month, int day) {
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        cell.setCellValue(calendar.getTime());
+        cell.setCellStyle(style);
+    }
+
+    @Test
+    void testSheetsMatchUsermodel() throws Exception {
+
+        try (var streaming = new XSSFStreamingWorkbookDataExtractor(file.getPath())) {
+
+            assertEquals(2, streaming.getNumberOfSheets());
+
+            for (int sheetId = 1; sheetId <= 2; sheetId++)
+                assertSheetMatchesUsermodel(file, streaming, sheetId);
+        }
+    }
+
+    @Test
+    void testInvalidSheetIdFallsBackToActiveSheet() throws Exception {
+
+        try (var streaming = new XSSFStreamingWorkbookDataExtractor(file.getPath())) {
+            assertEquals("Notes", streaming.getSheetDataExtractorAtOrActive1Based(-410).getSheetName());
+            assertSheetMatchesUsermodel(file, streaming, 7);
+        }
+    }
+
+    @Test
+    void testValuesAreTyped() throws Exception {
+
+        try (var streaming = new XSSFStreamingWorkbookDataExtractor(file.getPath())) {
+
+            CellValue[][] values = streaming.getSheetDataExtractorAtOrActive1Based(1).extractValues();
+
+            assertEquals(4, values.length);
+            assertEquals(CellType.NUMERIC, values[1][2].getType());
+            assertInstanceOf(java.util.Date.class, values[1][2].getValue());
+            assertEquals(6.0, values[1][3].getDouble());
+            assertEquals("Apple-3", values[1][4].getString());
+            assertEquals(Boolean.TRUE, values[1][6].getBoolean());
+            assertTrue(values[2][0].isNull());
+            assertEquals("Apple", values[2][5].getString());
+        }
+    }
+
+    /**
+     * Asserts that the sheet is extracted as {@link SheetDataExtractor} extracts it from a workbook
+     * loaded in memory.
+     */
+    static void assertSheetMatchesUsermodel(File file, WorkbookDataExtractor extractor, int sheetId1Based)
+            throws IOException {
+        assertSheetMatchesUsermodel(file, extractor.getSheetDataExtractorAtOrActive1Based(sheetId1Based), sheetId1Based);
+    }
+
+    static void assertSheetMatchesUsermodel(File file, SheetDataExtractor sheetExtractor, int sheetId1Based)
+            throws IOException {
+
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+
+            SheetDataExtractor expectedExtractor = new UsermodelWorkbookDataExtractor(workbook)
+                    .getSheetDataExtractorAtOrActive1Based(sheetId1Based);
+
+            assertEquals(expectedExtractor.getSheetName(), sheetExtractor.getSheetName());
+            assertEquals(describe(expectedExtractor.extractValues()), describe(sheetExtractor.extractValues()));
+        }
+    }
+
+    private static List<List<String>> describe(CellValue[][] values) {
+
+        if (values == null)
+            return null;
+
+        return Arrays.stream(values)
+                .map(row -> Arrays.stream(row)
+                        .map(value -> value.getType() + ":" + value.getValue())
+                        .toList())
+                .toList();
+    }
+}
@@ -0,0 +1,94 @@
+package ogs.localization;
+
+import ogs.model.core.LocalizationDictionary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link LocalizationDictionary} over the rows of a {@code String[][]}, indexed by hash maps built once
+ * with the dictionary: one over all languages, one per language column, and one of the language columns.
+ */
+class ArrayLocalizationDictionary implements LocalizationDictionary {
+
+    private final String[][] dictionary;
+
+    // Folded term -> the first row containing it, and its first column in that row
+    private final Map<String, TermLocation> termIndex = new HashMap<>();
+    // Folded language tag -> its first column; language lookups start at the second column
+    private final Map<String, Integer> languageColumns = new HashMap<>();
+    // Language column -> folded term -> the first row containing it in that column
+    private final Map<Integer, Map<String, Integer>> termIndexByLanguage = new HashMap<>();
+
+    ArrayLocalizationDictionary(String[][] dictionaryRows) {
+
+        this.dictionary = dictionaryRows;
+
+        if (dictionaryRows.length > 0)
+            buildIndexes();
+    }
+
+    private void buildIndexes() {
+
+        String[] languageTags = dictionary[0];
+
+        for (int columnId = 1; columnId < languageTags.length; columnId++) {
+            if (languageTags[columnId] != null)
+                languageColumns.putIfAbsent(LocalizationDictionary.foldCase(languageTags[columnId].strip()), columnId);
+        }
+
+        for (int rowId = 1; rowId < dictionary.length; rowId++) {
+
+            // Only the header cells of a row have a language
+            int columnCount = Math.min(dictionary[rowId].length, languageTags.length);
+
+            for (int columnId = 0; columnId < columnCount; columnId++) {
+
+                String term = dictionary[rowId][columnId];
+
+                if (term == null || term.isBlank())
+                    continue;
+
+                String foldedTerm = LocalizationDictionary.foldCase(term.strip());
+
+                termIndex.putIfAbsent(foldedTerm, new TermLocation(rowId, columnId));
+
+                if (columnId > 0)
+                    termIndexByLanguage.computeIfAbsent(columnId, id -> new HashMap<>())
+                            .putIfAbsent(foldedTerm, rowId);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return dictionary.length;
+    }
+
+    @Override
+    public int getColumnCount(int row) {
+        return dictionary[row].length;
+    }
+
+    @Override
+    public String getTerm(int row, int column) {
+        return dictionary[row][column];
+    }
+
+    @Override
+    public TermLocation findTerm(String term) {
+        return termIndex.get(LocalizationDictionary.foldCase(term));
+    }
+
+    @Override
+    public int findRow(String term, String languageTag) {
+
+        Integer languageColumn = languageColumns.get(LocalizationDictionary.foldCase(languageTag));
+
+        if (languageColumn == null)
+            return -1;
+
+        return termIndexByLanguage.getOrDefault(languageColumn, Map.of())
+                .getOrDefault(LocalizationDictionary.foldCase(term), -1);
+    }
+}
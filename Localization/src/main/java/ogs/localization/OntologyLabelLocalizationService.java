@@ -1,7 +1,8 @@
 package ogs.localization;
 
+import ogs.model.core.LocalizationDictionary;
 import ogs.model.ontology.AnnotationPropertyType;
-import ogs.model.ontology.AnnotationPropertyDTO;
+import ogs.model.ontology.AnnotationAssertion;
 import ogs.model.ontology.ResourceDTO;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
@@ -31,18 +32,24 @@ import java.util.*;
  *
  * <p>The resulting ontology resources will contain labels in all languages present in the dictionary,
  * based on a case-insensitive match with existing labels in any language.
+ *
+ * <p>The dictionary may also be given as a {@link LocalizationDictionary}, such as a compiled one that
+ * is queried in place. Terms are looked up in its indexes, which find the first row containing a term.
  */
 public class OntologyLabelLocalizationService {
 
-    private final String[][] dictionary;
+    private final LocalizationDictionary dictionary;
 
     /**
      * @param dictionaryRows a 2D array where {@code dictionaryRows[0]} is the header row with language tags,
      *                       and all other rows contain terms corresponding to these languages.
      */
     public OntologyLabelLocalizationService(String[][] dictionaryRows) {
+        this(new ArrayLocalizationDictionary(dictionaryRows));
+    }
 
-        this.dictionary = dictionaryRows;
+    public OntologyLabelLocalizationService(LocalizationDictionary dictionary) {
+        this.dictionary = dictionary;
     }
 
     public void attachAllPossibleLabelsTo(List<ResourceDTO> resources) {
@@ -54,17 +61,17 @@ public class OntologyLabelLocalizationService {
                 || resource.getAnnotationProperties().isEmpty())
                 continue;
 
-            AnnotationPropertyDTO[] labels = resource.getAnnotationProperties()
+            AnnotationAssertion[] labels = resource.getAnnotationProperties()
                     .stream()
-                    .filter(property -> property.getType() == AnnotationPropertyType.label)
-                    .toArray(AnnotationPropertyDTO[]::new);
+                    .filter(property -> property.type() == AnnotationPropertyType.label)
+                    .toArray(AnnotationAssertion[]::new);
 
-            List<AnnotationPropertyDTO> labelsToRemove = new ArrayList<>(labels.length);
+            List<AnnotationAssertion> labelsToRemove = new ArrayList<>(labels.length);
 
             for (var label : labels) {
 
-                String langTag = label.getLangTag();
-                String processedLabelValue = label.getValue().toLowerCase();
+                String langTag = label.langTag();
+                String processedLabelValue = label.value().toLowerCase();
                 Integer foundTermIndex = null;
 
                 if (langTag == null) {
@@ -73,7 +80,7 @@ public class OntologyLabelLocalizationService {
                     langTag = Objects.requireNonNullElse(coordinates.left, Language.presume(processedLabelValue));
                     foundTermIndex = coordinates.right;
 
-                    addLabelIfMissing(resource, label.getValue(), langTag);
+                    addLabelIfMissing(resource, label.value(), langTag);
 
                     labelsToRemove.add(label);
                 }
@@ -84,21 +91,21 @@ public class OntologyLabelLocalizationService {
                 if (foundTermIndex == null)
                     continue;
 
-                for (int columnId = 0; columnId < dictionary[foundTermIndex].length; columnId++) {
+                for (int columnId = 0; columnId < dictionary.getColumnCount(foundTermIndex); columnId++) {
 
-                    String translation = dictionary[foundTermIndex][columnId];
+                    String translation = dictionary.getTerm(foundTermIndex, columnId);
 
                     if (translation == null || translation.isBlank())
                         continue;
 
-                    String translationLangTag = dictionary[0][columnId];
+                    String translationLangTag = dictionary.getTerm(0, columnId);
 
                     addLabelIfMissing(resource, translation, translationLangTag);
                 }
             }
 
             for (var labelToRemove : labelsToRemove)
-                resource.removeAnnotationProperty(labelToRemove);
+                resource.removeAnnotationProperty(labelToRemove.type(), labelToRemove.langTag());
         }
     }
 
@@ -109,52 +116,23 @@ public class OntologyLabelLocalizationService {
         }
     }
 
+    /**
+     * @return the language and the row of the first row containing the term, or a pair of nulls.
+     */
     private ImmutablePair<String, Integer> findTerm(String term) {
 
-        String language = null;
-        Integer rowMatchIndex = null;
-
-        for (int rowId = 1; rowId < dictionary.length; rowId++) {
+        LocalizationDictionary.TermLocation location = dictionary.findTerm(term);
 
-            for (int columnId = 0; columnId < dictionary[rowId].length; columnId++) {
+        if (location == null)
+            return new ImmutablePair<>(null, null);
 
-                if (dictionary[rowId][columnId].strip().equalsIgnoreCase(term)) {
-                    language = dictionary[0][columnId];
-                    rowMatchIndex = rowId;
-                    break;
-                }
-            }
-        }
-
-        return new ImmutablePair<>(language, rowMatchIndex);
+        return new ImmutablePair<>(dictionary.getTerm(0, location.column()), location.row());
     }
 
     private Integer findTermInSpecificLanguage(String term, String languageTag) {
 
-        Integer matchIndex = null;
-        int languageColumnIndex = -1;
-
-        for (int columnId = 1; columnId < dictionary[0].length; columnId++) {
-
-            if (dictionary[0][columnId].strip().equalsIgnoreCase(languageTag)) {
-                languageColumnIndex = columnId;
-                break;
-            }
-        }
-
-        if (languageColumnIndex == -1) {
-            return null;
-        }
-
-        for (int rowId = 1; rowId < dictionary.length; rowId++) {
-
-            if (dictionary[rowId][languageColumnIndex].strip().equalsIgnoreCase(term)) {
-                matchIndex = rowId;
-                break;
-            }
-        }
-
-        return matchIndex;
+        int row = dictionary.findRow(term, languageTag);
+        return row < 0 ? null : row;
     }
 
     public String createLocalizedOntologyDescription(String langTag, String creator, String lastModifiedByUser, String description, String keywords) {
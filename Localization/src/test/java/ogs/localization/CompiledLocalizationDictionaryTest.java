@@ -0,0 +1,106 @@
+package ogs.localization;
+
+import ogs.data.core.CompiledLocalizationDictionary;
+import ogs.model.core.LocalizationDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledLocalizationDictionaryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMappedDictionaryMatchesArrayDictionary() throws IOException {
+
+        String[][] rows = {
+                {"Term", "en", " DE ", null, "en", "fr"},
+                {"dog", "Dog", "Hund", "ignored", "hound", "chien"},
+                {"cat", " Cat ", "Katze", null, "CAT"},
+                {"DOG", "dog", "Hund", "x", "y", "chien", "beyond the header"},
+                {"", "  ", null},
+                {"Straße", "street", "STRASSE", "", "road", "rue"},
+                {},
+        };
+
+        assertMatchesArrayDictionary(rows, "dog", "DOG", " dog", "Hund", "hund", "cat", "CAT", "Katze", "hound",
+                "chien", "x", "ignored", "beyond the header", "Straße", "STRASSE", "street", "rue", "", "missing");
+    }
+
+    @Test
+    void testRandomDictionariesMatchArrayDictionary() throws IOException {
+
+        Random random = new Random(11);
+        String[] words = {"a", "A", "b", " b ", "ß", "SS", "ǅ", "ǆ", "en", "EN", "de", null, ""};
+
+        for (int round = 0; round < 50; round++) {
+
+            String[][] rows = new String[1 + random.nextInt(8)][];
+            for (int row = 0; row < rows.length; row++) {
+                rows[row] = new String[random.nextInt(6)];
+                for (int column = 0; column < rows[row].length; column++)
+                    rows[row][column] = words[random.nextInt(words.length)];
+            }
+
+            assertMatchesArrayDictionary(rows, words);
+        }
+    }
+
+    @Test
+    void testEmptyDictionary() throws IOException {
+        assertMatchesArrayDictionary(new String[0][], "dog");
+    }
+
+    /**
+     * Compiles the rows to a file, maps it, and compares every cell and the lookup of every probe term,
+     * in every language of the header and a few others, with {@link ArrayLocalizationDictionary}.
+     */
+    private void assertMatchesArrayDictionary(String[][] rows, String... probes) throws IOException {
+
+        Path file = Files.write(directory.resolve("dictionary.dict"),
+                CompiledLocalizationDictionary.compile(rows, "source.xlsx", 123, 456));
+
+        var expected = new ArrayLocalizationDictionary(rows);
+        var actual = CompiledLocalizationDictionary.map(file);
+
+        assertTrue(actual.isCompiledFrom("source.xlsx", 123, 456));
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+
+        for (int row = 0; row < rows.length; row++) {
+            assertEquals(expected.getColumnCount(row), actual.getColumnCount(row));
+            for (int column = 0; column < rows[row].length; column++)
+                assertEquals(expected.getTerm(row, column), actual.getTerm(row, column));
+        }
+
+        Set<String> languageTags = new LinkedHashSet<>(List.of("en", "EN", "De", "xx", ""));
+        if (rows.length > 0)
+            for (String languageTag : rows[0])
+                if (languageTag != null)
+                    languageTags.add(languageTag.strip());
+
+        List<String> terms = new ArrayList<>();
+        for (String probe : probes)
+            if (probe != null)
+                terms.add(probe);
+
+        for (String term : terms) {
+
+            assertEquals(expected.findTerm(term), actual.findTerm(term), "Term \"" + term + "\"");
+
+            for (String languageTag : languageTags)
+                assertEquals(expected.findRow(term, languageTag), actual.findRow(term, languageTag),
+                        "Term \"" + term + "\" in \"" + languageTag + "\"");
+        }
+    }
+}
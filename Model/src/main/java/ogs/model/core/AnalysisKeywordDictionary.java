@@ -7,6 +7,9 @@ public class AnalysisKeywordDictionary {
     private final SortedMap<String, TableAnalysisConcept> keywordsMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private final SortedMap<String, EnumSet<KeywordMatchingOption>> optionsMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
+    // Compiled on the first match after a change; sheets may be analyzed concurrently
+    private volatile KeywordMatcher matcher;
+
     public void put(String keyword, TableAnalysisConcept concept) {
         put(keyword, concept, EnumSet.noneOf(KeywordMatchingOption.class));
     }
@@ -20,6 +23,7 @@ public class AnalysisKeywordDictionary {
 
         keywordsMap.put(normalizedKeyword, concept);
         optionsMap.put(normalizedKeyword, options);
+        matcher = null;
     }
 
     public void remove(String keyword) {
@@ -29,61 +33,82 @@ public class AnalysisKeywordDictionary {
 
         keywordsMap.remove(keyword);
         optionsMap.remove(keyword);
+        matcher = null;
     }
 
+    /**
+     * Matches the content of the container against the keywords, trying them in their sorted order.
+     * On a match, the container is replaced by a description of the matching keyword.
+     *
+     * @return the concept of the first matching keyword, or null if none matches.
+     */
     public TableAnalysisConcept tryMatch(StringBuilder container) {
 
-        String normalizedInput = container.toString().strip();
-
-        for (Map.Entry<String, TableAnalysisConcept> entry : keywordsMap.entrySet()) {
-
-            String keyword = entry.getKey();
-            TableAnalysisConcept concept = entry.getValue();
-            EnumSet<KeywordMatchingOption> options
-                    = optionsMap.getOrDefault(keyword, EnumSet.noneOf(KeywordMatchingOption.class));
+        KeywordMatcher compiledMatcher = getMatcher();
+        int rank = compiledMatcher.match(container.toString().strip());
 
-            if (matches(normalizedInput, keyword, options)) {
+        if (rank < 0)
+            return null;
 
-                container.setLength(0);
-                container.append("Keyword match found with \"");
-                container.append(keyword);
-                container.append('\"');
+        String keyword = compiledMatcher.getKeyword(rank);
+        EnumSet<KeywordMatchingOption> options = compiledMatcher.getOptions(rank);
 
-                for (var option : options) {
-                    container.append(";\n");
-                    container.append(option.getDisplayString());
-                    container.append(" = ");
-                    container.append(options.contains(option));
-                }
+        container.setLength(0);
+        container.append("Keyword match found with \"");
+        container.append(keyword);
+        container.append('\"');
 
-                container.append('.');
-
-                return concept;
-            }
+        for (var option : options) {
+            container.append(";\n");
+            container.append(option.getDisplayString());
+            container.append(" = ");
+            container.append(options.contains(option));
         }
 
-        return null;
+        container.append('.');
+
+        return compiledMatcher.getConcept(rank);
     }
 
-    private boolean matches(String input, String keyword, EnumSet<KeywordMatchingOption> options) {
+    private KeywordMatcher getMatcher() {
 
-        boolean caseSensitive = options.contains(KeywordMatchingOption.CaseSensitive);
-        boolean completeMatch = options.contains(KeywordMatchingOption.CompleteMatch);
+        KeywordMatcher compiledMatcher = matcher;
+        // Matching ignores case with the default locale, as String.toLowerCase() does
+        Locale locale = Locale.getDefault();
 
-        String processedInput = caseSensitive ? input : input.toLowerCase();
-        String processedKeyword = caseSensitive ? keyword : keyword.toLowerCase();
+        if (compiledMatcher == null || !compiledMatcher.isCompiledFor(locale)) {
+            compiledMatcher = new KeywordMatcher(keywordsMap, optionsMap, locale);
+            matcher = compiledMatcher;
+        }
 
-        if (completeMatch)
-            return processedInput.equals(processedKeyword);
-        else
-            return processedInput.contains(processedKeyword);
+        return compiledMatcher;
     }
 
+    /**
+     * @return a read-only view; changes go through {@link #put} and {@link #remove}.
+     */
     public Map<String, TableAnalysisConcept> getKeywordsMap() {
-        return keywordsMap;
+        return Collections.unmodifiableSortedMap(keywordsMap);
     }
 
+    public void setKeywordsMap(Map<String, TableAnalysisConcept> keywordsMap) {
+
+        this.keywordsMap.clear();
+        this.keywordsMap.putAll(keywordsMap);
+        matcher = null;
+    }
+
+    /**
+     * @return a read-only view; changes go through {@link #put} and {@link #remove}.
+     */
     public Map<String, EnumSet<KeywordMatchingOption>> getOptionsMap() {
-        return optionsMap;
+        return Collections.unmodifiableSortedMap(optionsMap);
+    }
+
+    public void setOptionsMap(Map<String, EnumSet<KeywordMatchingOption>> optionsMap) {
+
+        this.optionsMap.clear();
+        this.optionsMap.putAll(optionsMap);
+        matcher = null;
     }
 }
@@ -20,6 +20,20 @@ public class Configuration {
     private String hierarchyLevelIndicator;
     @JsonProperty("Data cleansing regex")
     private String dataCleansingRegex;
+    @JsonProperty("Streaming extraction")
+    private boolean streamingExtraction = false;
+    @JsonProperty("Parallel sheet analysis")
+    private boolean parallelSheetAnalysis = false;
+    @JsonProperty("Approximate uniqueness error")
+    private double approximateUniquenessError = 0;
+    @JsonProperty("Streaming output")
+    private boolean streamingOutput = false;
+    @JsonProperty("Ontology file format")
+    private OntologyFileFormat ontologyFileFormat = OntologyFileFormat.RdfXml;
+    @JsonProperty("Ontology store directory")
+    private String ontologyStoreDirectory;
+    @JsonProperty("Export ontology store")
+    private boolean exportOntologyStore = false;
 
     // Default constructor (required for JSON deserialization)
     public Configuration() {}
@@ -101,5 +115,98 @@ public class Configuration {
     public void setDataCleansingRegex(String dataCleansingRegex) {
         this.dataCleansingRegex = dataCleansingRegex;
     }
+
+    public boolean isStreamingExtraction() {
+        return streamingExtraction;
+    }
+
+    /**
+     * @param streamingExtraction whether to read sheets with the XSSF (.xlsx/.xlsm) or HSSF (.xls)
+     *                            event model instead of loading the whole workbook into memory.
+     */
+    public void setStreamingExtraction(boolean streamingExtraction) {
+        this.streamingExtraction = streamingExtraction;
+    }
+
+    public boolean isParallelSheetAnalysis() {
+        return parallelSheetAnalysis;
+    }
+
+    /**
+     * @param parallelSheetAnalysis whether to analyze the sheets concurrently when all sheets are processed.
+     *                              Without streaming extraction, the sheets are still extracted one at a time,
+     *                              since the in-memory workbook is not thread-safe; only their analysis overlaps.
+     *                              With streaming extraction, .xlsx sheets are extracted concurrently, and .xls
+     *                              sheets together in a single pass over the file.
+     */
+    public void setParallelSheetAnalysis(boolean parallelSheetAnalysis) {
+        this.parallelSheetAnalysis = parallelSheetAnalysis;
+    }
+
+    public double getApproximateUniquenessError() {
+        return approximateUniquenessError;
+    }
+
+    /**
+     * @param approximateUniquenessError the relative standard error allowed when estimating the uniqueness
+     *                                   of very large columns, e.g., 0.01; 0 counts distinct values exactly.
+     *                                   Column classifications then match the exact ones with high probability,
+     *                                   not always.
+     */
+    public void setApproximateUniquenessError(double approximateUniquenessError) {
+        this.approximateUniquenessError = approximateUniquenessError;
+    }
+
+    public boolean isStreamingOutput() {
+        return streamingOutput;
+    }
+
+    /**
+     * @param streamingOutput whether to stream a new ontology to its file as it is generated instead of building
+     *                        it in memory; ontology files that already exist, and ontology stores, are still
+     *                        merged into.
+     */
+    public void setStreamingOutput(boolean streamingOutput) {
+        this.streamingOutput = streamingOutput;
+    }
+
+    public OntologyFileFormat getOntologyFileFormat() {
+        return ontologyFileFormat;
+    }
+
+    /**
+     * @param ontologyFileFormat the format the ontology file is written in, which also gives its extension.
+     */
+    public void setOntologyFileFormat(OntologyFileFormat ontologyFileFormat) {
+
+        if (ontologyFileFormat == null)
+            return;
+
+        this.ontologyFileFormat = ontologyFileFormat;
+    }
+
+    public String getOntologyStoreDirectory() {
+        return ontologyStoreDirectory;
+    }
+
+    /**
+     * @param ontologyStoreDirectory the directory of a TDB2 dataset keeping the ontology between runs, which then
+     *                               only add their triples to it; the ontology file is loaded into it when
+     *                               it is first used. Blank to read and write the ontology file on every run.
+     */
+    public void setOntologyStoreDirectory(String ontologyStoreDirectory) {
+        this.ontologyStoreDirectory = ontologyStoreDirectory;
+    }
+
+    public boolean isExportOntologyStore() {
+        return exportOntologyStore;
+    }
+
+    /**
+     * @param exportOntologyStore whether to write the ontology file from the ontology store after a run.
+     */
+    public void setExportOntologyStore(boolean exportOntologyStore) {
+        this.exportOntologyStore = exportOntologyStore;
+    }
     //endregion
 }
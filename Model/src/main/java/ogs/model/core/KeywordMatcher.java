@@ -0,0 +1,239 @@
+package ogs.model.core;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of an {@link AnalysisKeywordDictionary} compiled for matching.
+ * Keywords are ranked in the iteration order of the dictionary, and the lowest-ranked matching
+ * keyword wins, exactly as if the keywords were tried one after another.
+ * <ul>
+ *     <li>{@link KeywordMatchingOption#CompleteMatch} keywords are looked up in hash maps;</li>
+ *     <li>the other keywords are found as substrings by Aho–Corasick automata in a single scan of the input.</li>
+ * </ul>
+ * Case-insensitive keywords are lower-cased once, when the snapshot is compiled.
+ */
+final class KeywordMatcher {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Locale locale;
+    private final String[] keywords;
+    private final TableAnalysisConcept[] concepts;
+    private final List<EnumSet<KeywordMatchingOption>> options;
+
+    private final Map<String, Integer> completeCaseSensitive = new HashMap<>();
+    private final Map<String, Integer> completeIgnoringCase = new HashMap<>();
+    private final SubstringAutomaton containedCaseSensitive;
+    private final SubstringAutomaton containedIgnoringCase;
+
+    /**
+     * @param locale the locale to lower-case with, as {@link String#toLowerCase()} would use.
+     */
+    KeywordMatcher(SortedMap<String, TableAnalysisConcept> keywordsMap,
+                   Map<String, EnumSet<KeywordMatchingOption>> optionsMap,
+                   Locale locale) {
+
+        this.locale = locale;
+
+        int size = keywordsMap.size();
+        keywords = new String[size];
+        concepts = new TableAnalysisConcept[size];
+        options = new ArrayList<>(size);
+
+        var caseSensitiveBuilder = new SubstringAutomaton.Builder();
+        var ignoringCaseBuilder = new SubstringAutomaton.Builder();
+        int rank = 0;
+
+        for (Map.Entry<String, TableAnalysisConcept> entry : keywordsMap.entrySet()) {
+
+            String keyword = entry.getKey();
+            EnumSet<KeywordMatchingOption> keywordOptions
+                    = optionsMap.getOrDefault(keyword, EnumSet.noneOf(KeywordMatchingOption.class));
+
+            keywords[rank] = keyword;
+            concepts[rank] = entry.getValue();
+            options.add(keywordOptions);
+
+            boolean caseSensitive = keywordOptions.contains(KeywordMatchingOption.CaseSensitive);
+            boolean completeMatch = keywordOptions.contains(KeywordMatchingOption.CompleteMatch);
+            String processedKeyword = caseSensitive ? keyword : keyword.toLowerCase(locale);
+
+            if (completeMatch)
+                (caseSensitive ? completeCaseSensitive : completeIgnoringCase).putIfAbsent(processedKeyword, rank);
+            else
+                (caseSensitive ? caseSensitiveBuilder : ignoringCaseBuilder).add(processedKeyword, rank);
+
+            rank++;
+        }
+
+        containedCaseSensitive = caseSensitiveBuilder.build();
+        containedIgnoringCase = ignoringCaseBuilder.build();
+    }
+
+    boolean isCompiledFor(Locale locale) {
+        return this.locale.equals(locale);
+    }
+
+    /**
+     * @return the rank of the first keyword matching the (stripped) input, or -1 if none does.
+     */
+    int match(String input) {
+
+        int bestRank = Math.min(
+                completeCaseSensitive.getOrDefault(input, NO_MATCH),
+                containedCaseSensitive.findLowestRank(input));
+
+        if (!completeIgnoringCase.isEmpty() || !containedIgnoringCase.isEmpty()) {
+
+            String lowerCaseInput = input.toLowerCase(locale);
+
+            bestRank = Math.min(bestRank, completeIgnoringCase.getOrDefault(lowerCaseInput, NO_MATCH));
+            bestRank = Math.min(bestRank, containedIgnoringCase.findLowestRank(lowerCaseInput));
+        }
+
+        return bestRank == NO_MATCH ? -1 : bestRank;
+    }
+
+    String getKeyword(int rank) {
+        return keywords[rank];
+    }
+
+    TableAnalysisConcept getConcept(int rank) {
+        return concepts[rank];
+    }
+
+    EnumSet<KeywordMatchingOption> getOptions(int rank) {
+        return options.get(rank);
+    }
+
+    /**
+     * Finds the lowest rank among the keywords contained in a text. Transitions of each state are kept
+     * as sorted character arrays, and every state knows the lowest rank of the keywords ending there,
+     * including those reached through failure links.
+     */
+    private static final class SubstringAutomaton {
+
+        private final char[][] labels;
+        private final int[][] targets;
+        private final int[] failures;
+        private final int[] lowestRanks;
+
+        private SubstringAutomaton(char[][] labels, int[][] targets, int[] failures, int[] lowestRanks) {
+            this.labels = labels;
+            this.targets = targets;
+            this.failures = failures;
+            this.lowestRanks = lowestRanks;
+        }
+
+        boolean isEmpty() {
+            return labels.length == 1 && lowestRanks[0] == NO_MATCH;
+        }
+
+        int findLowestRank(String text) {
+
+            int state = 0;
+            int lowestRank = lowestRanks[0]; // An empty keyword is contained in any text
+
+            for (int i = 0; i < text.length() && lowestRank > 0; i++) {
+
+                char c = text.charAt(i);
+                int next;
+
+                while ((next = transition(state, c)) < 0 && state != 0)
+                    state = failures[state];
+
+                state = Math.max(next, 0);
+                lowestRank = Math.min(lowestRank, lowestRanks[state]);
+            }
+
+            return lowestRank;
+        }
+
+        private int transition(int state, char c) {
+
+            int index = Arrays.binarySearch(labels[state], c);
+            return index >= 0 ? targets[state][index] : -1;
+        }
+
+        private static final class Builder {
+
+            private final List<TreeMap<Character, Integer>> children = new ArrayList<>(List.of(new TreeMap<>()));
+            private final List<Integer> ranks = new ArrayList<>(List.of(NO_MATCH));
+
+            void add(String keyword, int rank) {
+
+                int state = 0;
+
+                for (int i = 0; i < keyword.length(); i++) {
+
+                    Integer next = children.get(state).get(keyword.charAt(i));
+
+                    if (next == null) {
+                        next = children.size();
+                        children.add(new TreeMap<>());
+                        ranks.add(NO_MATCH);
+                        children.get(state).put(keyword.charAt(i), next);
+                    }
+
+                    state = next;
+                }
+
+                ranks.set(state, Math.min(ranks.get(state), rank));
+            }
+
+            SubstringAutomaton build() {
+
+                int size = children.size();
+                char[][] labels = new char[size][];
+                int[][] targets = new int[size][];
+                int[] failures = new int[size];
+                int[] lowestRanks = new int[size];
+
+                for (int state = 0; state < size; state++) {
+
+                    var stateChildren = children.get(state);
+                    labels[state] = new char[stateChildren.size()];
+                    targets[state] = new int[stateChildren.size()];
+                    int i = 0;
+
+                    for (Map.Entry<Character, Integer> child : stateChildren.entrySet()) {
+                        labels[state][i] = child.getKey();
+                        targets[state][i++] = child.getValue();
+                    }
+                }
+
+                var automaton = new SubstringAutomaton(labels, targets, failures, lowestRanks);
+
+                // Breadth-first, so that failure targets, being shallower, are complete before they are used
+                Queue<Integer> queue = new ArrayDeque<>(List.of(0));
+                lowestRanks[0] = ranks.get(0);
+
+                while (!queue.isEmpty()) {
+
+                    int state = queue.poll();
+
+                    for (int i = 0; i < labels[state].length; i++) {
+
+                        char c = labels[state][i];
+                        int child = targets[state][i];
+                        int failure = 0;
+
+                        if (state != 0) {
+                            int candidate = failures[state];
+                            int next;
+                            while ((next = automaton.transition(candidate, c)) < 0 && candidate != 0)
+                                candidate = failures[candidate];
+                            failure = Math.max(next, 0);
+                        }
+
+                        failures[child] = failure;
+                        lowestRanks[child] = Math.min(ranks.get(child), lowestRanks[failure]);
+                        queue.add(child);
+                    }
+                }
+
+                return automaton;
+            }
+        }
+    }
+}
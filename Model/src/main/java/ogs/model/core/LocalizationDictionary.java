@@ -0,0 +1,52 @@
+package ogs.model.core;
+
+/**
+ * A table of terms in several languages: row 0 holds the language tags, and each following row holds
+ * one term in the languages of the header. Terms are found ignoring case, among the columns that
+ * have a language tag.
+ */
+public interface LocalizationDictionary {
+
+    record TermLocation(int row, int column) {}
+
+    /**
+     * @return the number of rows, including the header row.
+     */
+    int getRowCount();
+
+    int getColumnCount(int row);
+
+    /**
+     * @return the term in the cell, or the language tag in row 0.
+     * @throws IndexOutOfBoundsException if the row or the column is out of range.
+     */
+    String getTerm(int row, int column);
+
+    /**
+     * @return the cell of the first row containing the term, or null if no row does.
+     */
+    TermLocation findTerm(String term);
+
+    /**
+     * @return the first row containing the term in the column of the language, or -1 if none does.
+     *         Languages are looked up from the second column on.
+     */
+    int findRow(String term, String languageTag);
+
+    /**
+     * Folds the case of every code point, so that two strings are {@link String#equalsIgnoreCase equal
+     * ignoring case} exactly when their folded forms are equal.
+     */
+    static String foldCase(String value) {
+
+        StringBuilder folded = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+
+        return folded.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package ogs.model.core;
+
+public enum OntologyFileFormat {
+
+    RdfXml ("RDF/XML", ".rdf"),
+    Turtle ("Turtle", ".ttl"),
+    NTriples ("N-Triples", ".nt"),
+    RdfThrift ("RDF Thrift", ".trdf"),
+    RdfProtobuf ("RDF Protobuf", ".rpb");
+
+    private final String displayString;
+    private final String fileExtension;
+
+    OntologyFileFormat(String displayString, String fileExtension) {
+        this.displayString = displayString;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getDisplayString() {
+        return displayString;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
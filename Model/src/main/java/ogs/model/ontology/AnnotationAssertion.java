@@ -0,0 +1,19 @@
+package ogs.model.ontology;
+
+/**
+ * An annotation of a resource, such as a label or a comment, in an optional language.
+ *
+ * @param value   the stripped, non-blank value.
+ * @param langTag the stripped language tag, or null.
+ */
+public record AnnotationAssertion(AnnotationPropertyType type, String value, String langTag) {
+
+    public AnnotationAssertion {
+
+        if (value == null || value.isBlank())
+            throw new IllegalArgumentException("The property value must not be null or blank.");
+
+        value = value.strip();
+        langTag = langTag == null ? null : langTag.strip();
+    }
+}
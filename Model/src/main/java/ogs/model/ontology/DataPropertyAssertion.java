@@ -0,0 +1,10 @@
+package ogs.model.ontology;
+
+/**
+ * A value of a data property of an individual.
+ *
+ * @param property the descriptor of the property, shared by all of its values.
+ * @param dataType the type the value is to be written as.
+ */
+public record DataPropertyAssertion(DataPropertyDTO property, Object value, Class<?> dataType) {
+}
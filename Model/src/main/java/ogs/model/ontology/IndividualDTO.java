@@ -6,8 +6,8 @@ import java.util.List;
 public class IndividualDTO extends ResourceDTO {
 
     private List<ClassDTO> types;
-    private List<DataPropertyDTO> dataProperties;
-    private List<ObjectPropertyDTO> objectProperties;
+    private List<DataPropertyAssertion> dataProperties;
+    private List<ObjectPropertyAssertion> objectProperties;
 
     public IndividualDTO(String id) {
         super(id);
@@ -50,7 +50,7 @@ public class IndividualDTO extends ResourceDTO {
         }
     }
 
-    public void addDataProperty(DataPropertyDTO property) {
+    public void addDataProperty(DataPropertyAssertion property) {
 
         if (dataProperties == null)
             dataProperties = new ArrayList<>();
@@ -61,7 +61,7 @@ public class IndividualDTO extends ResourceDTO {
         dataProperties.add(property);
     }
 
-    public void addObjectProperty(ObjectPropertyDTO property) {
+    public void addObjectProperty(ObjectPropertyAssertion property) {
 
         if (objectProperties == null)
             objectProperties = new ArrayList<>();
@@ -80,7 +80,7 @@ public class IndividualDTO extends ResourceDTO {
         return types;
     }
 
-    public List<DataPropertyDTO> getDataProperties() {
+    public List<DataPropertyAssertion> getDataProperties() {
 
         if (dataProperties == null)
             dataProperties = new ArrayList<>();
@@ -88,7 +88,7 @@ public class IndividualDTO extends ResourceDTO {
         return dataProperties;
     }
 
-    public List<ObjectPropertyDTO> getObjectProperties() {
+    public List<ObjectPropertyAssertion> getObjectProperties() {
 
         if (objectProperties == null)
             objectProperties = new ArrayList<>();
@@ -0,0 +1,9 @@
+package ogs.model.ontology;
+
+/**
+ * A relationship of an individual to another individual.
+ *
+ * @param property the descriptor of the property, shared by all of its assertions.
+ */
+public record ObjectPropertyAssertion(ObjectPropertyDTO property, IndividualDTO object) {
+}
@@ -1,7 +1,9 @@
 package ogs.model.ontology;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -11,7 +13,10 @@ public abstract class ResourceDTO {
 
     protected Vocabulary namespace;
     protected String id;
-    protected List<AnnotationPropertyDTO> annotationProperties;
+    // Annotations in the order they were added, keyed by type and language tag
+    private Map<AnnotationKey, AnnotationAssertion> annotationProperties;
+
+    private record AnnotationKey(AnnotationPropertyType type, String langTag) {}
 
     public ResourceDTO(String id) {
 
@@ -20,11 +25,7 @@ public abstract class ResourceDTO {
 
     public ResourceDTO(Vocabulary namespace, String id) {
 
-        if (id == null || id.isBlank())
-            throw new IllegalArgumentException("Argument for resource creation is null or blank.");
-
-        String sanitizedId = id.strip().replaceAll("[\\s+|\\u00A0]", "_")
-                .replaceAll("[^\\p{L}\\p{N}._-]", "_");
+        String sanitizedId = sanitizeId(id);
 
         if (sanitizedId.isEmpty()) {
             sanitizedId = UUID.randomUUID().toString();
@@ -33,6 +34,18 @@ public abstract class ResourceDTO {
         this.namespace = namespace;
     }
 
+    /**
+     * @return the id a resource created with {@code id} gets, unless it is empty.
+     * @throws IllegalArgumentException if {@code id} is null or blank.
+     */
+    public static String sanitizeId(String id) {
+
+        if (id == null || id.isBlank())
+            throw new IllegalArgumentException("Argument for resource creation is null or blank.");
+
+        return ResourceIdSanitizer.sanitize(id);
+    }
+
     public Vocabulary getNamespace() {
         return namespace;
     }
@@ -46,15 +59,12 @@ public abstract class ResourceDTO {
         if (annotationProperties == null)
             return null;
 
-        var annotationProperty = annotationProperties.stream()
-                .filter(property -> Objects.equals(type, property.getType()))
-                .findAny()
-                .orElse(null);
+        // The first annotation of the type, in any language
+        for (AnnotationAssertion annotationProperty : annotationProperties.values())
+            if (Objects.equals(type, annotationProperty.type()))
+                return annotationProperty.value();
 
-        if (annotationProperty != null)
-            return annotationProperty.getValue();
-        else
-            return null;
+        return null;
     }
 
     public String getAnnotationProperty(AnnotationPropertyType type, String langTag) {
@@ -62,14 +72,10 @@ public abstract class ResourceDTO {
         if (annotationProperties == null)
             return null;
 
-        var annotationProperty = annotationProperties.stream()
-                .filter(property -> Objects.equals(type, property.getType())
-                        && Objects.equals(langTag, property.getLangTag()))
-                .findAny()
-                .orElse(null);
+        var annotationProperty = annotationProperties.get(new AnnotationKey(type, stripLangTag(langTag)));
 
         if (annotationProperty != null)
-            return annotationProperty.getValue();
+            return annotationProperty.value();
         else
             return null;
     }
@@ -81,30 +87,34 @@ public abstract class ResourceDTO {
 
     public void addAnnotationProperty(AnnotationPropertyType type, String value, String langTag) {
 
+        langTag = stripLangTag(langTag);
+
         if (getAnnotationProperty(type, langTag) != null)
             throw new RuntimeException("There already is an annotation property of such type" +
                     " with such langTag. This application is not designed for duplicate properties.");
 
         if (annotationProperties == null)
-            annotationProperties = new ArrayList<>();
+            annotationProperties = new LinkedHashMap<>();
+
+        if (value != null && !value.isBlank()) {
 
-        if (value != null && !value.isBlank())
-            annotationProperties.add(
-                    new AnnotationPropertyDTO(
-                            type,
-                            value,
-                            langTag
-                    )
-            );
+            annotationProperties.put(new AnnotationKey(type, langTag), new AnnotationAssertion(type, value, langTag));
+        }
     }
 
-    public void removeAnnotationProperty(AnnotationPropertyDTO label) {
+    public void removeAnnotationProperty(AnnotationPropertyType type, String langTag) {
 
-        if (annotationProperties == null
-            || !annotationProperties.contains(label))
+        if (annotationProperties == null)
             return;
 
-        annotationProperties.remove(label);
+        annotationProperties.remove(new AnnotationKey(type, stripLangTag(langTag)));
+    }
+
+    /**
+     * Annotations are keyed by the stripped language tag, as {@link AnnotationAssertion} keeps it.
+     */
+    private static String stripLangTag(String langTag) {
+        return langTag == null ? null : langTag.strip();
     }
 
     public String getLabel() {
@@ -142,8 +152,12 @@ public abstract class ResourceDTO {
         addAnnotationProperty(comment, commentValue, langTag);
     }
 
-    public List<AnnotationPropertyDTO> getAnnotationProperties() {
-        return annotationProperties;
+    /**
+     * @return a read-only view of the annotations in the order they were added, or null if none has ever been
+     * added. Copy it before adding or removing annotations while iterating.
+     */
+    public Collection<AnnotationAssertion> getAnnotationProperties() {
+        return annotationProperties == null ? null : Collections.unmodifiableCollection(annotationProperties.values());
     }
 
     @Override
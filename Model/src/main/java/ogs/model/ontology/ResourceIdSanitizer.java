@@ -0,0 +1,95 @@
+package ogs.model.ontology;
+
+/**
+ * Sanitizes resource ids in a single pass over their code points: the id is stripped, and every code point
+ * that is not a letter, a number, '.', '_' or '-' is replaced by '_'. This is what replacing {@code [\s+|]}
+ * and the no-break space, and then {@code [^\p{L}\p{N}._-]}, with '_' yields.
+ *
+ * <p>Ids that need no change are returned as they are. The others are memoized in a fixed-size,
+ * direct-mapped table, so the same names repeated across cells are sanitized once. The table may be
+ * read and overwritten concurrently: its entries are immutable, and a lost entry is merely recomputed.
+ */
+final class ResourceIdSanitizer {
+
+    private static final int MEMO_SIZE = 1 << 12;
+
+    private record Entry(String id, String sanitizedId) {}
+
+    private static final Entry[] memo = new Entry[MEMO_SIZE];
+
+    private ResourceIdSanitizer() {}
+
+    static String sanitize(String id) {
+
+        if (isSanitized(id))
+            return id;
+
+        int slot = spread(id.hashCode()) & (MEMO_SIZE - 1);
+        Entry entry = memo[slot];
+
+        if (entry != null && entry.id().equals(id))
+            return entry.sanitizedId();
+
+        String sanitizedId = replaceDisallowed(id.strip());
+        memo[slot] = new Entry(id, sanitizedId);
+        return sanitizedId;
+    }
+
+    private static boolean isSanitized(String id) {
+
+        // Whitespace is not allowed, so there is nothing to strip either
+        for (int i = 0; i < id.length(); ) {
+
+            int codePoint = id.codePointAt(i);
+
+            if (!isAllowed(codePoint))
+                return false;
+
+            i += Character.charCount(codePoint);
+        }
+
+        return true;
+    }
+
+    private static String replaceDisallowed(String id) {
+
+        StringBuilder sanitizedId = new StringBuilder(id.length());
+
+        for (int i = 0; i < id.length(); ) {
+
+            int codePoint = id.codePointAt(i);
+
+            if (isAllowed(codePoint))
+                sanitizedId.appendCodePoint(codePoint);
+            else
+                sanitizedId.append('_');
+
+            i += Character.charCount(codePoint);
+        }
+
+        return sanitizedId.toString();
+    }
+
+    /**
+     * @return {@code true} if the code point matches {@code [\p{L}\p{N}._-]}.
+     */
+    private static boolean isAllowed(int codePoint) {
+
+        if (codePoint < 0x80)
+            return (codePoint >= 'a' && codePoint <= 'z')
+                    || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9')
+                    || codePoint == '.' || codePoint == '_' || codePoint == '-';
+
+        return switch (Character.getType(codePoint)) {
+            case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER,
+                 Character.MODIFIER_LETTER, Character.OTHER_LETTER,
+                 Character.DECIMAL_DIGIT_NUMBER, Character.LETTER_NUMBER, Character.OTHER_NUMBER -> true;
+            default -> false;
+        };
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,150 @@
+package ogs.model.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static ogs.model.core.KeywordMatchingOption.CaseSensitive;
+import static ogs.model.core.KeywordMatchingOption.CompleteMatch;
+import static ogs.model.core.TableAnalysisConcept.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisKeywordDictionaryTest {
+
+    @Test
+    void testFirstMatchWinsAcrossOptions() {
+
+        var dictionary = new AnalysisKeywordDictionary();
+        dictionary.put("Name", LabelColumn, EnumSet.of(CompleteMatch));
+        dictionary.put("am", CommentColumn, EnumSet.of(CaseSensitive));
+        dictionary.put("NAME ID", IdentifierColumn, EnumSet.of(CaseSensitive, CompleteMatch));
+        dictionary.put("id", ClassColumn);
+
+        assertMatchesLinearScan(dictionary, "name", "NAME", " Name ", "Name ID", "NAME ID", "name id",
+                "Family name", "FAMILY NAME", "Grid", "xid", "", "   ");
+
+        // "am" comes before "id" and "NAME ID" in the sorted keywords
+        assertEquals(CommentColumn, dictionary.tryMatch(new StringBuilder("name id")));
+        assertEquals(ClassColumn, dictionary.tryMatch(new StringBuilder("NAME ID")));
+    }
+
+    @Test
+    void testOverlappingKeywords() {
+
+        var dictionary = new AnalysisKeywordDictionary();
+        dictionary.put("she", LabelColumn);
+        dictionary.put("he", CommentColumn);
+        dictionary.put("hers", ClassColumn);
+        dictionary.put("his", DataPropertyColumn);
+        dictionary.put("ushers", ObjectPropertyColumn, EnumSet.of(CaseSensitive));
+
+        assertMatchesLinearScan(dictionary, "ushers", "USHERS", "hishe", "ahishers", "sh", "hers", "h");
+    }
+
+    @Test
+    void testEmptyKeyword() {
+
+        var dictionary = new AnalysisKeywordDictionary();
+        dictionary.put("blank", ColumnToIgnore);
+
+        // Only a deserialized map can hold an empty keyword, which every input contains
+        Map<String, TableAnalysisConcept> keywords = new HashMap<>(dictionary.getKeywordsMap());
+        keywords.put("", CommentColumn);
+        dictionary.setKeywordsMap(keywords);
+
+        assertMatchesLinearScan(dictionary, "", "blank", "anything");
+        assertEquals(CommentColumn, dictionary.tryMatch(new StringBuilder("blank")));
+    }
+
+    @Test
+    void testRandomDictionariesMatchLinearScan() {
+
+        Random random = new Random(42);
+        TableAnalysisConcept[] concepts = TableAnalysisConcept.values();
+
+        for (int round = 0; round < 200; round++) {
+
+            var dictionary = new AnalysisKeywordDictionary();
+
+            for (int i = random.nextInt(12); i >= 0; i--) {
+
+                EnumSet<KeywordMatchingOption> options = EnumSet.noneOf(KeywordMatchingOption.class);
+                if (random.nextBoolean())
+                    options.add(CaseSensitive);
+                if (random.nextInt(4) == 0)
+                    options.add(CompleteMatch);
+
+                dictionary.put(randomText(random, 1 + random.nextInt(4)),
+                        concepts[random.nextInt(concepts.length)], options);
+            }
+
+            String[] inputs = new String[50];
+            for (int i = 0; i < inputs.length; i++)
+                inputs[i] = randomText(random, random.nextInt(10));
+
+            assertMatchesLinearScan(dictionary, inputs);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+
+        String alphabet = "abAB ı";
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < length; i++)
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+        return text.toString();
+    }
+
+    /**
+     * Asserts that every input gets the concept and description the keywords give when tried one
+     * after another, as matching was implemented before the keywords were compiled.
+     */
+    private static void assertMatchesLinearScan(AnalysisKeywordDictionary dictionary, String... inputs) {
+
+        for (String input : inputs) {
+
+            StringBuilder expected = new StringBuilder(input);
+            StringBuilder actual = new StringBuilder(input);
+
+            assertEquals(matchLinearly(dictionary, expected), dictionary.tryMatch(actual),
+                    "Concept for \"" + input + "\" in " + dictionary.getOptionsMap());
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    private static TableAnalysisConcept matchLinearly(AnalysisKeywordDictionary dictionary, StringBuilder container) {
+
+        String input = container.toString().strip();
+
+        for (Map.Entry<String, TableAnalysisConcept> entry : dictionary.getKeywordsMap().entrySet()) {
+
+            String keyword = entry.getKey();
+            EnumSet<KeywordMatchingOption> options = dictionary.getOptionsMap()
+                    .getOrDefault(keyword, EnumSet.noneOf(KeywordMatchingOption.class));
+
+            boolean caseSensitive = options.contains(CaseSensitive);
+            String processedInput = caseSensitive ? input : input.toLowerCase();
+            String processedKeyword = caseSensitive ? keyword : keyword.toLowerCase();
+
+            boolean matches = options.contains(CompleteMatch)
+                    ? processedInput.equals(processedKeyword)
+                    : processedInput.contains(processedKeyword);
+
+            if (matches) {
+
+                container.setLength(0);
+                container.append("Keyword match found with \"").append(keyword).append('"');
+
+                for (var option : options)
+                    container.append(";\n").append(option.getDisplayString()).append(" = ").append(true);
+
+                container.append('.');
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package ogs.model.ontology;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ogs.model.ontology.AnnotationPropertyType.comment;
+import static ogs.model.ontology.AnnotationPropertyType.label;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceDTOTest {
+
+    @Test
+    void testLangTagsAreStripped() {
+
+        var dto = new ClassDTO("Dog");
+        dto.addLabel(" Dog ", " en ");
+
+        assertEquals("Dog", dto.getLabel("en"));
+        assertEquals("Dog", dto.getLabel("en\t"));
+        assertThrows(RuntimeException.class, () -> dto.addLabel("Hound", "en"));
+        assertThrows(RuntimeException.class, () -> dto.addLabel("Hound", " en"));
+
+        dto.removeAnnotationProperty(label, "en ");
+        assertNull(dto.getLabel("en"));
+
+        dto.addLabel("Hound", "en");
+        assertEquals("Hound", dto.getLabel(" en "));
+    }
+
+    @Test
+    void testAnnotationsKeepTheirOrder() {
+
+        // A class is labeled with its name when created
+        var dto = new ClassDTO("Dog");
+        dto.addLabel("Dog", "en");
+        dto.addComment("A pet");
+        dto.addLabel("Hund", "de");
+        dto.addLabel(" ", "fr");
+
+        assertEquals(List.of(
+                new AnnotationAssertion(label, "Dog", null),
+                new AnnotationAssertion(label, "Dog", "en"),
+                new AnnotationAssertion(comment, "A pet", null),
+                new AnnotationAssertion(label, "Hund", "de")), List.copyOf(dto.getAnnotationProperties()));
+        assertThrows(UnsupportedOperationException.class, () -> dto.getAnnotationProperties().clear());
+    }
+}
@@ -0,0 +1,112 @@
+package ogs.model.ontology;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceIdSanitizerTest {
+
+    private static final String[][] IDS = {
+            // Input, sanitized id
+            {"Dog", "Dog"},
+            {"  Dog  ", "Dog"},
+            {"Hot dog", "Hot_dog"},
+            {"Hot\tdog\nstand", "Hot_dog_stand"},
+            {"Hot\u00A0dog", "Hot_dog"},
+            {"\u00A0Dog\u00A0", "_Dog_"},
+            {"a+b|c", "a_b_c"},
+            {"a++||b", "a____b"},
+            {"v1.2_beta-3", "v1.2_beta-3"},
+            {"Größe (cm)", "Größe__cm_"},
+            {"Ⅻ ½ ٣", "Ⅻ_½_٣"},
+            {"Straße/Hausnr.", "Straße_Hausnr."},
+            {"𝐀lpha", "𝐀lpha"},
+            {"smile😀", "smile_"},
+            {"lone\uD800surrogate\uDC00", "lone_surrogate_"},
+            {"\u2003Em\u2003space\u2003", "Em_space"},
+            {"\u2007", "_"},
+    };
+
+    @Test
+    void testTableMatchesReplaceAllPipeline() {
+
+        for (String[] row : IDS) {
+            assertEquals(sanitizeWithReplaceAll(row[0]), row[1], "Table row for \"" + row[0] + "\"");
+            assertEquals(row[1], ResourceIdSanitizer.sanitize(row[0]), "Sanitized \"" + row[0] + "\"");
+        }
+    }
+
+    @Test
+    void testEveryCodePointMatchesReplaceAllPipeline() {
+
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+
+            String id = "a" + Character.toString(codePoint) + "b";
+            String expected = sanitizeWithReplaceAll(id);
+
+            if (!expected.equals(ResourceIdSanitizer.sanitize(id)))
+                fail("Sanitized U+%04X differently".formatted(codePoint));
+        }
+    }
+
+    @Test
+    void testRandomIdsMatchReplaceAllPipeline() {
+
+        Random random = new Random(7);
+        String characters = "aZ9._-+| \t\u00A0\u2003\u2007äß½𝐀😀\uD800/()";
+
+        for (int i = 0; i < 100_000; i++) {
+
+            StringBuilder id = new StringBuilder("x");
+            for (int length = random.nextInt(12); length > 0; length--)
+                id.append(characters.charAt(random.nextInt(characters.length())));
+
+            assertEquals(sanitizeWithReplaceAll(id.toString()), ResourceIdSanitizer.sanitize(id.toString()));
+        }
+    }
+
+    @Test
+    void testMemoKeepsResultsAcrossCollisions() {
+
+        String dirtyId = "memo id+1";
+        String sanitizedId = ResourceIdSanitizer.sanitize(dirtyId);
+
+        assertSame(sanitizedId, ResourceIdSanitizer.sanitize(dirtyId));
+
+        // More ids than slots, so that entries are overwritten
+        for (int i = 0; i < 10_000; i++)
+            assertEquals("id_" + i + "_x", ResourceIdSanitizer.sanitize("id " + i + "|x"));
+
+        assertEquals(sanitizedId, ResourceIdSanitizer.sanitize(dirtyId));
+        assertEquals("memo_id_1", sanitizedId);
+    }
+
+    @Test
+    void testCleanIdIsReturnedAsIs() {
+
+        String id = new String("Already.clean_id-1");
+        assertSame(id, ResourceIdSanitizer.sanitize(id));
+    }
+
+    @Test
+    void testBlankIdsAndUUIDFallback() {
+
+        assertThrows(IllegalArgumentException.class, () -> new ClassDTO(" \t"));
+        assertThrows(IllegalArgumentException.class, () -> new ClassDTO("\u2003"));
+        assertThrows(IllegalArgumentException.class, () -> new ClassDTO(null));
+
+        // An id that is not blank keeps at least one character, so the random id is never needed
+        assertEquals("_", new ClassDTO("\u00A0").getId());
+        assertEquals("__", new ClassDTO("+|").getId());
+    }
+
+    /**
+     * Sanitizes the id as resource ids were sanitized before {@link ResourceIdSanitizer}.
+     */
+    private static String sanitizeWithReplaceAll(String id) {
+        return id.strip().replaceAll("[\\s+|\\u00A0]", "_")
+                .replaceAll("[^\\p{L}\\p{N}._-]", "_");
+    }
+}
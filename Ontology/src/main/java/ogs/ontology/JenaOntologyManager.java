@@ -1,21 +1,29 @@
 package ogs.ontology;
 
 import ogs.model.core.Configuration;
+import ogs.model.core.OntologyFileFormat;
 import ogs.model.ontology.*;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.*;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.RiotNotFoundException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
 import java.time.Year;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,6 +42,16 @@ public class JenaOntologyManager {
     private String COMPLETE_BASE_URI;
 
     private OntModel model;
+    // Classes resolved for binding are transferred to the model once
+    private final Map<ClassDTO, OntClass> extractedClasses = new IdentityHashMap<>();
+    // Populates the base graph of the model directly; the model is a view of it for binding and saving
+    private OntologyGraphWriter graphWriter;
+    private final OntologyFileFormat fileFormat;
+    private final boolean streamingOutput;
+    // Keeps the ontology between runs instead of its file, if configured
+    private final OntologyStore store;
+    private final boolean exportStore;
+    private boolean loadedFromFile;
 
     public JenaOntologyManager(Configuration config) throws InvalidPathException {
 
@@ -48,51 +66,66 @@ public class JenaOntologyManager {
             outputDirectoryPath = System.getProperty("user.dir");
         }
 
-        FILE_PATH = Paths.get(outputDirectoryPath, fileName + ".rdf").toString();
+        fileFormat = config.getOntologyFileFormat();
+        FILE_PATH = Paths.get(outputDirectoryPath, fileName + fileFormat.getFileExtension()).toString();
+        streamingOutput = config.isStreamingOutput();
+
+        String storeDirectoryPath = config.getOntologyStoreDirectory();
+        store = storeDirectoryPath == null || storeDirectoryPath.isBlank() ? null : new OntologyStore(storeDirectoryPath);
+        exportStore = config.isExportOntologyStore();
     }
 
     public void initialize() throws RiotException, IOException {
 
+        if (store != null) {
+            initializeFromStore();
+            return;
+        }
+
         model = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM);
+        extractedClasses.clear();
+        graphWriter = null;
+        loadedFromFile = false;
         OntologyFileIO.loadFromRDF(model, FILE_PATH);
+        loadedFromFile = true;
     }
 
-    public void populateWith(List<ResourceDTO> ontologyResources) {
+    /**
+     * Makes the model a view of the store, bulk-loading the ontology file into the store first if it is empty.
+     *
+     * @throws RiotNotFoundException if neither the store nor the file holds an ontology.
+     */
+    private void initializeFromStore() throws RiotException {
 
-        for (ClassDTO classDTO : ontologyResources.stream()
-                .filter(res -> res instanceof ClassDTO)
-                .map(res -> (ClassDTO) res)
-                .toList()) {
-            addClassHierarchy(classDTO);
-        }
+        extractedClasses.clear();
+        graphWriter = null;
+        loadedFromFile = false;
 
-        for (DataPropertyDTO dataPropertyDTO : ontologyResources.stream()
-                .filter(res -> res instanceof DataPropertyDTO)
-                .map(res -> (DataPropertyDTO) res)
-                .toList()) {
-            addPropertyHierarchy(dataPropertyDTO);
-        }
+        boolean storeEmpty = store.isEmpty();
 
-        for (ObjectPropertyDTO objectPropertyDTO : ontologyResources.stream()
-                .filter(res -> res instanceof ObjectPropertyDTO)
-                .map(res -> (ObjectPropertyDTO) res)
-                .toList()) {
-            addPropertyHierarchy(objectPropertyDTO);
+        if (storeEmpty && Files.exists(Paths.get(FILE_PATH))) {
+            store.load(FILE_PATH);
+            storeEmpty = store.isEmpty();
         }
 
-        for (AnnotationPropertyDTO annotationPropertyDTO : ontologyResources.stream()
-                .filter(res -> res instanceof AnnotationPropertyDTO)
-                .map(res -> (AnnotationPropertyDTO) res)
-                .toList()) {
-            addPropertyHierarchy(annotationPropertyDTO);
-        }
+        store.update(() -> model = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM, store.getModel()));
 
-        for (IndividualDTO individualDTO : ontologyResources.stream()
-                .filter(res -> res instanceof IndividualDTO)
-                .map(res -> (IndividualDTO) res)
-                .toList()) {
-            extractOntIndividual(individualDTO);
-        }
+        if (storeEmpty)
+            throw new RiotNotFoundException("Not found: " + FILE_PATH);
+
+        loadedFromFile = true;
+    }
+
+    /**
+     * @return whether the ontology is to be written by {@link #saveStreaming}: streaming output is configured,
+     *         no ontology store is, and no existing ontology file was loaded to merge with.
+     */
+    public boolean isStreamingOutput() {
+        return streamingOutput && store == null && !loadedFromFile;
+    }
+
+    public void populateWith(List<ResourceDTO> ontologyResources) {
+        update(() -> getGraphWriter().write(ontologyResources));
     }
 
     public void bindClasses(Map<ClassDTO, ClassDTO> classBindingMap) {
@@ -100,218 +133,204 @@ public class JenaOntologyManager {
         if (classBindingMap == null || classBindingMap.isEmpty())
             return;
 
-        for (var entry : classBindingMap.entrySet()) {
-            ClassDTO keyClassDTO = entry.getKey();
-            ClassDTO valueClassDTO = entry.getValue();
+        update(() -> {
+            for (var entry : classBindingMap.entrySet()) {
+                ClassDTO keyClassDTO = entry.getKey();
+                ClassDTO valueClassDTO = entry.getValue();
 
-            OntClass keyClass = extractOntClass(keyClassDTO);
-            OntClass valueClass = extractOntClass(valueClassDTO);
+                OntClass keyClass = extractOntClass(keyClassDTO);
+                OntClass valueClass = extractOntClass(valueClassDTO);
 
-            if (keyClass == null || valueClass == null) {
-                throw new IllegalArgumentException("Could not find OntClass for provided ClassDTOs");
-            }
+                if (keyClass == null || valueClass == null) {
+                    throw new IllegalArgumentException("Could not find OntClass for provided ClassDTOs");
+                }
 
-            bindInstancesRecursively(keyClass, valueClass);
-        }
+                bindInstancesRecursively(keyClass, valueClass);
+            }
+        });
     }
 
     private void bindInstancesRecursively(OntClass sourceClass, OntClass targetClass) {
 
-        sourceClass.listInstances().forEachRemaining(individual -> {
+        // Listed before types are added, since iterating a store while it is written may skip triples
+        sourceClass.listInstances().toList().forEach(individual -> {
             if (individual.isResource()) {
                 individual.addRDFType(targetClass);
             }
         });
 
-        sourceClass.listSubClasses(true).forEachRemaining(subClass -> {
+        sourceClass.listSubClasses(true).toList().forEach(subClass -> {
             if (subClass.canAs(OntClass.class)) {
                 bindInstancesRecursively(subClass.as(OntClass.class), targetClass);
             }
         });
     }
 
-    public void save() throws IOException { OntologyFileIO.saveTo(model, FILE_PATH); }
+    /**
+     * Writes the model to the ontology file. With an ontology store, the ontology is already committed to the store,
+     * and is only written to the file if exporting the store is configured.
+     */
+    public void save() throws IOException {
 
-    public void addClassHierarchy(ClassDTO rootDTO) {
-
-        OntClass root = extractOntClass(rootDTO);
-        addClassHierarchyRecursive(rootDTO, root);
+        if (store == null)
+            OntologyFileIO.saveTo(model, FILE_PATH, fileFormat);
+        else if (exportStore)
+            exportStore();
     }
 
-    private void addClassHierarchyRecursive(ClassDTO dto, OntClass ontClass) {
-
-        if (dto.getDescendants() != null) {
+    /**
+     * Writes the ontology in the store to the ontology file, in its format.
+     */
+    public void exportStore() throws IOException {
 
-            for (ClassDTO childDTO : dto.getDescendants()) {
+        if (store == null)
+            throw new IllegalStateException("No ontology store is configured.");
 
-                OntClass childClass = extractOntClass(childDTO);
-                ontClass.addSubClass(childClass);
-                addClassHierarchyRecursive(childDTO, childClass);
-            }
-        }
+        store.export(FILE_PATH, fileFormat);
     }
 
-    public <T extends HierarchicalDTO<T>> void addPropertyHierarchy(T rootDTO) {
-        OntProperty root = extractOntProperty(rootDTO);
-        addHierarchyRecursive(rootDTO, root);
+    /**
+     * Releases the ontology store, if there is one. The manager cannot be used afterwards.
+     */
+    public void close() {
+
+        if (store != null)
+            store.close();
     }
 
-    private <T extends HierarchicalDTO<T>> void addHierarchyRecursive(T dto, OntProperty ontProperty) {
+    /**
+     * Streams the ontology to its file instead of populating the model: the metadata
+     * set on the model first, then the classes and property hierarchies, the individuals with the classes they
+     * are bound to, and their associations. Triples are written as they are generated, and the writer keeps state
+     * only for classes and properties, so the memory needed grows with the number of resources rather than with
+     * the number of triples. This does what {@link #populateWith}, {@link #createAssociations},
+     * {@link #bindClasses} and {@link #save} would for a model holding only the resources.
+     */
+    public void saveStreaming(List<ResourceDTO> ontologyResources, Map<ClassDTO, ClassDTO> classBindingMap)
+            throws IOException {
+
+        List<IndividualDTO> individualDTOs = ontologyResources.stream()
+                .filter(res -> res instanceof IndividualDTO)
+                .map(res -> (IndividualDTO) res)
+                .toList();
 
-        if (dto.getDescendants() != null) {
+        try (OutputStream out = OntologyFileIO.openOutput(Paths.get(FILE_PATH))) {
 
-            for (T descendant : dto.getDescendants()) {
+            StreamRDF stream = OntologyFileIO.openStream(out, fileFormat);
+            stream.start();
+            model.getNsPrefixMap().forEach(stream::prefix);
+            model.getBaseModel().getGraph().find().forEach(stream::triple);
 
-                OntProperty subProperty = extractOntProperty(descendant);
-                ontProperty.addSubProperty(subProperty);
-                addHierarchyRecursive(descendant, subProperty);
-            }
+            var streamWriter = new OntologyGraphWriter(model, COMPLETE_BASE_URI, stream);
+            streamWriter.setClassBindings(ontologyResources, classBindingMap);
+            streamWriter.write(ontologyResources);
+            streamAssociations(individualDTOs, stream);
+
+            stream.finish();
         }
     }
 
-    private <T extends HierarchicalDTO<T>> OntProperty extractOntProperty(T propertyDTO) {
+    private void streamAssociations(List<IndividualDTO> individualDTOs, StreamRDF stream) {
 
-        OntProperty ontProperty = switch (propertyDTO) {
-            case DataPropertyDTO dataPropertyDTO ->
-                    model.createDatatypeProperty(resolveURIFor(dataPropertyDTO));
+        Node associatesWithProperty = NodeFactory.createURI(COMPLETE_BASE_URI + "associatesWith");
+        boolean associatesWithDeclared = model.getObjectProperty(associatesWithProperty.getURI()) != null;
 
-            case ObjectPropertyDTO objectPropertyDTO ->
-                    model.createObjectProperty(resolveURIFor(objectPropertyDTO));
+        for (IndividualDTO individualDTO : individualDTOs) {
 
-            case AnnotationPropertyDTO annotationPropertyDTO ->
-                    model.createAnnotationProperty(resolveURIFor(annotationPropertyDTO));
+            List<IndividualDTO> associatesWithList =
+                    analyzeDescriptionForAssociations(individualDTO, individualDTOs);
 
-            case null ->
-                throw new NullPointerException("PropertyDTO is null! Check the value before passing it here!");
+            if (associatesWithList.isEmpty())
+                continue;
 
-            default ->
-                    throw new RuntimeException("Unknown property type: " + propertyDTO.getClass().getSimpleName());
-        };
+            if (!associatesWithDeclared) {
+                stream.triple(Triple.create(associatesWithProperty, RDF.type.asNode(), OWL.ObjectProperty.asNode()));
+                associatesWithDeclared = true;
+            }
 
-        transferAnnotationProperties(propertyDTO, ontProperty);
+            Node thisIndividual = NodeFactory.createURI(resolveURIFor(individualDTO));
 
-        return ontProperty;
+            for (IndividualDTO associatesWithDTO : associatesWithList)
+                stream.triple(Triple.create(thisIndividual, associatesWithProperty,
+                        NodeFactory.createURI(resolveURIFor(associatesWithDTO))));
+        }
     }
 
-    private OntClass extractOntClass(ClassDTO ontClassDTO) {
-
-        OntClass ontClass = model.createClass(resolveURIFor(ontClassDTO));
-
-        transferAnnotationProperties(ontClassDTO, ontClass);
+    public void addClassHierarchy(ClassDTO rootDTO) {
 
-        return ontClass;
+        update(() -> {
+            var graphWriter = getGraphWriter();
+            graphWriter.writeClassHierarchy(rootDTO);
+            graphWriter.flush();
+        });
     }
 
-    public void addIndividual(IndividualDTO individualDTO) {
+    public <T extends HierarchicalDTO<T>> void addPropertyHierarchy(T rootDTO) {
 
-        Individual individual = extractOntIndividual(individualDTO);
-        transferObjectProperties(individualDTO, individual);
+        update(() -> {
+            var graphWriter = getGraphWriter();
+            graphWriter.writePropertyHierarchy(rootDTO);
+            graphWriter.flush();
+        });
     }
 
-    private Individual extractOntIndividual(IndividualDTO individualDTO) {
-
-        List<ClassDTO> types = individualDTO.getTypes();
-
-        if (types == null || types.isEmpty())
-            throw new RuntimeException(
-                    String.format("The type for the individual %s was not provided.", individualDTO.getId()));
-
-        OntClass firstType = extractOntClass(types.getFirst());
-
-        Individual individual = model.createIndividual(resolveURIFor(individualDTO), firstType);
+    private OntClass extractOntClass(ClassDTO ontClassDTO) {
 
-        types.removeFirst();
+        OntClass ontClass = extractedClasses.get(ontClassDTO);
 
-        if (!types.isEmpty()) {
-            for (ClassDTO typeDTO : types) {
+        if (ontClass != null)
+            return ontClass;
 
-                OntClass ontClass = extractOntClass(typeDTO);
-                individual.addRDFType(ontClass);
-            }
-        }
+        ontClass = model.createClass(resolveURIFor(ontClassDTO));
 
-        transferAnnotationProperties(individualDTO, individual);
-        transferDataProperties(individualDTO, individual);
+        transferAnnotationProperties(ontClassDTO, ontClass);
+        extractedClasses.put(ontClassDTO, ontClass);
 
-        return individual;
+        return ontClass;
     }
 
-    private void transferObjectProperties(IndividualDTO individualDTO, Individual individual) {
-
-        List<ObjectPropertyDTO> objectProperties = individualDTO.getObjectProperties();
-
-        if (objectProperties == null)
-            return;
-
-        for (ObjectPropertyDTO objectPropertyDTO : individualDTO.getObjectProperties()) {
-
-            String propertyURI = resolveURIFor(objectPropertyDTO);
-            OntProperty objectProperty = model.getOntProperty(propertyURI);
-
-            if (objectProperty == null) {
-                throw new RuntimeException(
-                        String.format("Data property %s could not be found in the ontology.", propertyURI));
-            }
-
-            Individual object = extractOntIndividual(individualDTO);
+    public void addIndividual(IndividualDTO individualDTO) {
 
-            individual.addProperty(objectProperty, object);
-        }
+        update(() -> {
+            var graphWriter = getGraphWriter();
+            graphWriter.writeIndividual(individualDTO, true);
+            graphWriter.flush();
+        });
     }
 
-    private void transferDataProperties(IndividualDTO individualDTO, Individual individual) {
+    private OntologyGraphWriter getGraphWriter() {
 
-        List<DataPropertyDTO> dataProperties = individualDTO.getDataProperties();
+        if (graphWriter == null)
+            graphWriter = store == null
+                    ? new OntologyGraphWriter(model, COMPLETE_BASE_URI)
+                    : new OntologyGraphWriter(model, COMPLETE_BASE_URI, store);
 
-        if (dataProperties == null)
-            return;
-
-        for (DataPropertyDTO dataPropertyDTO : individualDTO.getDataProperties()) {
-
-            String propertyURI = resolveURIFor(dataPropertyDTO);
-            OntProperty dataProperty = model.getOntProperty(propertyURI);
+        return graphWriter;
+    }
 
-            if (dataProperty == null) {
-                throw new RuntimeException(
-                        String.format("Data property %s could not be found in the ontology.", propertyURI));
-            }
+    /**
+     * Runs the action in a write transaction of the ontology store, if there is one.
+     */
+    private void update(Runnable action) {
 
-            Object value = dataPropertyDTO.getValue();
-
-            switch (value) {
-                case null -> { continue; }
-                case Integer i ->
-                        individual.addLiteral(dataProperty, model.createTypedLiteral(i, XSDDatatype.XSDint));
-                case Double d ->
-                        individual.addLiteral(dataProperty, model.createTypedLiteral(d, XSDDatatype.XSDdouble));
-                case Boolean b ->
-                        individual.addLiteral(dataProperty, model.createTypedLiteral(b, XSDDatatype.XSDboolean));
-                case Date date -> {
-                    String dateValue = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(date);
-                    individual.addLiteral(dataProperty, model.createTypedLiteral(dateValue, XSDDatatype.XSDdateTime));
-                }
-                case String s ->
-                        individual.addLiteral(dataProperty, model.createTypedLiteral(s, XSDDatatype.XSDstring));
-                default -> throw new RuntimeException(
-                        String.format("Unsupported data type for property %s: %s",
-                                dataPropertyDTO.getId(),
-                                value.getClass().getSimpleName()));
-            }
-        }
+        if (store == null)
+            action.run();
+        else
+            store.update(action);
     }
 
     private void transferAnnotationProperties(ResourceDTO resourceDTO, Resource resource) {
 
-        List<AnnotationPropertyDTO> annotationProperties = resourceDTO.getAnnotationProperties();
+        Collection<AnnotationAssertion> annotationProperties = resourceDTO.getAnnotationProperties();
 
         if (annotationProperties == null)
             return;
 
         for (var annotationProperty : annotationProperties) {
-            String value = annotationProperty.getValue();
-            String langTag = annotationProperty.getLangTag();
+            String value = annotationProperty.value();
+            String langTag = annotationProperty.langTag();
 
-            switch (annotationProperty.getType()) {
+            switch (annotationProperty.type()) {
                 case label -> {
                     if (langTag != null) {
                         resource.addProperty(RDFS.label, resource.getModel().createLiteral(value, langTag));
@@ -327,7 +346,7 @@ public class JenaOntologyManager {
                     }
                 }
                 default -> throw new IllegalArgumentException(
-                        "Unsupported annotation property type: " + annotationProperty.getType());
+                        "Unsupported annotation property type: " + annotationProperty.type());
             }
         }
     }
@@ -337,6 +356,10 @@ public class JenaOntologyManager {
     }
 
     public void createAssociations(List<IndividualDTO> individualDTOs) {
+        update(() -> addAssociations(individualDTOs));
+    }
+
+    private void addAssociations(List<IndividualDTO> individualDTOs) {
 
         String associatesWithPropertyURI = COMPLETE_BASE_URI + "associatesWith";
         Property associatesWithProperty = model.getObjectProperty(associatesWithPropertyURI);
@@ -442,22 +465,25 @@ public class JenaOntologyManager {
         if (model == null)
             throw new IllegalStateException("The model hasn't been initialized yet. Call loadOrCreateModel() first.");
 
-        BASE_URI = resolveBaseURI();
-        COMPLETE_BASE_URI = BASE_URI + URI_SEPARATOR;
+        update(() -> {
+            BASE_URI = resolveBaseURI();
+            COMPLETE_BASE_URI = BASE_URI + URI_SEPARATOR;
+            graphWriter = null;
 
-        // Add the <owl:Ontology rdf:about="baseURI"> tag
-        model.createOntology(BASE_URI);
+            // Add the <owl:Ontology rdf:about="baseURI"> tag
+            model.createOntology(BASE_URI);
 
-        String fileBaseName = FilenameUtils.getBaseName(FILE_PATH)
-                .trim()
-                .replaceAll(" ", "-");
+            String fileBaseName = FilenameUtils.getBaseName(FILE_PATH)
+                    .trim()
+                    .replaceAll(" ", "-");
 
-        String baseNamespace = generateBaseNamespacePrefix(fileBaseName);
+            String baseNamespace = generateBaseNamespacePrefix(fileBaseName);
 
-        if (model.getNsPrefixURI(baseNamespace) == null) {
-            model.setNsPrefix(baseNamespace, COMPLETE_BASE_URI);
-            System.out.printf("Base xmlns is set to: %s=\"%s\"%n", baseNamespace, model.getNsPrefixURI(baseNamespace));
-        }
+            if (model.getNsPrefixURI(baseNamespace) == null) {
+                model.setNsPrefix(baseNamespace, COMPLETE_BASE_URI);
+                System.out.printf("Base xmlns is set to: %s=\"%s\"%n", baseNamespace, model.getNsPrefixURI(baseNamespace));
+            }
+        });
     }
 
     private String resolveBaseURI() {
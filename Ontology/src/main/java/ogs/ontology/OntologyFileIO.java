@@ -1,27 +1,118 @@
 package ogs.ontology;
 
+import ogs.model.core.OntologyFileFormat;
+import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.riot.RDFDataMgr;
-import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.*;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
 
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
+/**
+ * Reads and writes ontology files through buffered file channels. The format of a file is detected
+ * from its extension, RDF/XML being assumed for unknown extensions.
+ */
 public class OntologyFileIO {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * @throws RiotNotFoundException if the file does not exist.
+     */
     public static void loadFromRDF(Model ontModel, String filePath) throws RiotException, IOException {
 
-        InputStream in = RDFDataMgr.open(filePath);
-        ontModel.read(in, null);
-        in.close();
+        Path path = Path.of(filePath);
+
+        if (!Files.exists(path))
+            throw new RiotNotFoundException("Not found: " + filePath);
+
+        try (InputStream in = openInput(path)) {
+            RDFParser.source(in)
+                    .lang(RDFLanguages.filenameToLang(filePath, Lang.RDFXML))
+                    .parse(ontModel);
+        }
     }
 
     public static void saveTo(Model model, String filePath) throws IOException {
+        saveTo(model, filePath, detectFormat(filePath));
+    }
+
+    public static void saveTo(Model model, String filePath, OntologyFileFormat format) throws IOException {
+
+        try (OutputStream out = openOutput(Path.of(filePath))) {
+
+            if (format == OntologyFileFormat.RdfXml) {
+                // Written exactly as before
+                model.write(out);
+                return;
+            }
+
+            // An ontology model is written without its imports, as Model.write does
+            Model writtenModel = model instanceof OntModel ontModel ? ontModel.getBaseModel() : model;
+            RDFDataMgr.write(out, writtenModel, toRDFFormat(format));
+        }
+    }
+
+    public static OntologyFileFormat detectFormat(String filePath) {
+
+        Lang lang = RDFLanguages.filenameToLang(filePath, Lang.RDFXML);
+
+        if (Lang.TURTLE.equals(lang))
+            return OntologyFileFormat.Turtle;
+        if (Lang.NTRIPLES.equals(lang))
+            return OntologyFileFormat.NTriples;
+        if (Lang.RDFTHRIFT.equals(lang))
+            return OntologyFileFormat.RdfThrift;
+        if (Lang.RDFPROTO.equals(lang))
+            return OntologyFileFormat.RdfProtobuf;
+
+        return OntologyFileFormat.RdfXml;
+    }
+
+    /**
+     * @return a stream writing the triples to the output as they come, in the format.
+     */
+    static StreamRDF openStream(OutputStream out, OntologyFileFormat format) {
+
+        return switch (format) {
+            // Jena's RDF/XML writers need the whole model
+            case RdfXml -> new RdfXmlStreamWriter(out);
+            case Turtle -> StreamRDFWriter.getWriterStream(out, RDFFormat.TURTLE_BLOCKS);
+            case NTriples -> StreamRDFWriter.getWriterStream(out, RDFFormat.NTRIPLES);
+            case RdfThrift -> StreamRDFWriter.getWriterStream(out, RDFFormat.RDF_THRIFT);
+            case RdfProtobuf -> StreamRDFWriter.getWriterStream(out, RDFFormat.RDF_PROTO);
+        };
+    }
+
+    static OutputStream openOutput(Path path) throws IOException {
+
+        return new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)),
+                BUFFER_SIZE);
+    }
+
+    private static InputStream openInput(Path path) throws IOException {
+        return new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), BUFFER_SIZE);
+    }
+
+    private static RDFFormat toRDFFormat(OntologyFileFormat format) {
 
-        OutputStream out = new FileOutputStream(filePath);
-        model.write(out);
-        out.close();
+        return switch (format) {
+            case RdfXml -> RDFFormat.RDFXML;
+            case Turtle -> RDFFormat.TURTLE;
+            case NTriples -> RDFFormat.NTRIPLES;
+            case RdfThrift -> RDFFormat.RDF_THRIFT;
+            case RdfProtobuf -> RDFFormat.RDF_PROTO;
+        };
     }
-}
\ No newline at end of file
+}
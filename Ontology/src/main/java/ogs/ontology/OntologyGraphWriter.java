@@ -0,0 +1,416 @@
+package ogs.ontology;
+
+import ogs.model.ontology.*;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Writes the triples of resource DTOs straight into the base graph of an ontology model, bypassing
+ * the ontology API and its per-statement checks. It adds the same triples that creating the classes,
+ * properties and individuals through {@link OntModel} would.
+ *
+ * <p>The nodes of classes and properties are created once per resource, those of individuals every time they
+ * are written, so that the writer keeps no state per individual. Triples are added in batches, to the graph
+ * or to a {@link StreamRDF}.
+ * A property asserted on an individual must be declared in the model, as {@link OntModel#getOntProperty}
+ * requires; each property is looked up in the model once.
+ */
+class OntologyGraphWriter {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUB_CLASS_OF = RDFS.subClassOf.asNode();
+    private static final Node SUB_PROPERTY_OF = RDFS.subPropertyOf.asNode();
+    private static final Node LABEL = RDFS.label.asNode();
+    private static final Node COMMENT = RDFS.comment.asNode();
+    private static final Node CLASS = OWL.Class.asNode();
+    private static final Node DATATYPE_PROPERTY = OWL.DatatypeProperty.asNode();
+    private static final Node OBJECT_PROPERTY = OWL.ObjectProperty.asNode();
+    private static final Node ANNOTATION_PROPERTY = OWL.AnnotationProperty.asNode();
+
+    private final OntModel model;
+    private final Consumer<List<Triple>> output;
+    private final String namespace;
+    private final List<Triple> batch = new ArrayList<>(BATCH_SIZE);
+
+    // Classes and properties whose declaration and annotations have been written, and their nodes
+    private final Map<ResourceDTO, Node> writtenResources = new IdentityHashMap<>();
+    private final Map<String, Node> schemaNodes = new HashMap<>();
+    private final Set<Node> declaredProperties = new HashSet<>();
+    private List<ClassBinding> classBindings = List.of();
+
+    /**
+     * Writes into the base graph of the model.
+     */
+    OntologyGraphWriter(OntModel model, String namespace) {
+        this(model, namespace, batch -> GraphUtil.add(model.getBaseModel().getGraph(), batch));
+    }
+
+    /**
+     * Writes to the stream instead, leaving the model unchanged. Properties asserted on individuals must
+     * still be written before, or be declared in the model.
+     */
+    OntologyGraphWriter(OntModel model, String namespace, StreamRDF stream) {
+        this(model, namespace, batch -> batch.forEach(stream::triple));
+    }
+
+    /**
+     * Writes into the store the model is a view of, in the write transaction of the store.
+     */
+    OntologyGraphWriter(OntModel model, String namespace, OntologyStore store) {
+        this(model, namespace, store::add);
+    }
+
+    private OntologyGraphWriter(OntModel model, String namespace, Consumer<List<Triple>> output) {
+        this.model = model;
+        this.output = output;
+        this.namespace = namespace;
+    }
+
+    /**
+     * Sorts the resources by kind in a single pass, then writes the class hierarchies, the data, object
+     * and annotation property hierarchies, and the individuals, in that order.
+     */
+    void write(List<ResourceDTO> resources) {
+
+        List<ClassDTO> classes = new ArrayList<>();
+        List<DataPropertyDTO> dataProperties = new ArrayList<>();
+        List<ObjectPropertyDTO> objectProperties = new ArrayList<>();
+        List<AnnotationPropertyDTO> annotationProperties = new ArrayList<>();
+        List<IndividualDTO> individuals = new ArrayList<>();
+
+        for (ResourceDTO resource : resources) {
+            switch (resource) {
+                case ClassDTO classDTO -> classes.add(classDTO);
+                case DataPropertyDTO dataPropertyDTO -> dataProperties.add(dataPropertyDTO);
+                case ObjectPropertyDTO objectPropertyDTO -> objectProperties.add(objectPropertyDTO);
+                case AnnotationPropertyDTO annotationPropertyDTO -> annotationProperties.add(annotationPropertyDTO);
+                case IndividualDTO individualDTO -> individuals.add(individualDTO);
+                case null, default -> { }
+            }
+        }
+
+        try {
+            classes.forEach(this::writeClassHierarchy);
+            dataProperties.forEach(this::writePropertyHierarchy);
+            objectProperties.forEach(this::writePropertyHierarchy);
+            annotationProperties.forEach(this::writePropertyHierarchy);
+            individuals.forEach(individual -> writeIndividual(individual, false));
+        } finally {
+            flush();
+        }
+    }
+
+    void writeClassHierarchy(ClassDTO classDTO) {
+
+        Node ontClass = writeClass(classDTO);
+
+        if (classDTO.getDescendants() == null)
+            return;
+
+        for (ClassDTO childDTO : classDTO.getDescendants()) {
+            add(writeClass(childDTO), SUB_CLASS_OF, ontClass);
+            writeClassHierarchy(childDTO);
+        }
+    }
+
+    <T extends HierarchicalDTO<T>> void writePropertyHierarchy(T propertyDTO) {
+
+        Node property = writeProperty(propertyDTO);
+
+        if (propertyDTO.getDescendants() == null)
+            return;
+
+        for (T descendant : propertyDTO.getDescendants()) {
+            add(writeProperty(descendant), SUB_PROPERTY_OF, property);
+            writePropertyHierarchy(descendant);
+        }
+    }
+
+    /**
+     * Writes the types, the annotations and the data properties of the individual, and the object properties
+     * if requested.
+     */
+    Node writeIndividual(IndividualDTO individualDTO, boolean withObjectProperties) {
+
+        List<ClassDTO> types = individualDTO.getTypes();
+
+        if (types == null || types.isEmpty())
+            throw new RuntimeException(
+                    String.format("The type for the individual %s was not provided.", individualDTO.getId()));
+
+        Node individual = nodeFor(individualDTO);
+        List<Node> typeNodes = new ArrayList<>(types.size());
+
+        for (ClassDTO typeDTO : types) {
+            Node type = writeClass(typeDTO);
+            typeNodes.add(type);
+            add(individual, TYPE, type);
+        }
+
+        writeBoundTypes(individual, typeNodes);
+        writeAnnotations(individualDTO, individual);
+        writeDataProperties(individualDTO, individual);
+
+        if (withObjectProperties)
+            writeObjectProperties(individualDTO, individual);
+
+        return individual;
+    }
+
+    /**
+     * Types the individuals written from then on as {@link JenaOntologyManager#bindClasses} would in a model
+     * holding only the resources: in the order of the map, every individual of a bound class, or of one of
+     * its subclasses, also becomes an individual of the class it is bound to. The classes bound by each entry
+     * are worked out here, from the classes among the resources, so that individuals are typed as they are written.
+     */
+    void setClassBindings(List<ResourceDTO> resources, Map<ClassDTO, ClassDTO> classBindingMap) {
+
+        if (classBindingMap == null || classBindingMap.isEmpty()) {
+            classBindings = List.of();
+            return;
+        }
+
+        // Subclasses by class, as nodes of the written graph
+        Map<Node, Set<Node>> subClasses = new HashMap<>();
+        Set<ClassDTO> visitedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (ResourceDTO resource : resources) {
+            if (resource instanceof ClassDTO classDTO)
+                collectSubClasses(classDTO, subClasses, visitedClasses);
+        }
+
+        classBindings = new ArrayList<>(classBindingMap.size());
+
+        for (var entry : classBindingMap.entrySet()) {
+
+            writeClass(entry.getKey());
+            Node targetClass = writeClass(entry.getValue());
+            Set<Node> boundClasses = new HashSet<>();
+            Deque<Node> pending = new ArrayDeque<>(List.of(nodeFor(entry.getKey())));
+
+            while (!pending.isEmpty()) {
+                Node boundClass = pending.pop();
+                if (boundClasses.add(boundClass))
+                    pending.addAll(subClasses.getOrDefault(boundClass, Set.of()));
+            }
+
+            classBindings.add(new ClassBinding(boundClasses, targetClass));
+        }
+    }
+
+    private void collectSubClasses(ClassDTO classDTO, Map<Node, Set<Node>> subClasses, Set<ClassDTO> visited) {
+
+        if (classDTO.getDescendants() == null || !visited.add(classDTO))
+            return;
+
+        for (ClassDTO childDTO : classDTO.getDescendants()) {
+            subClasses.computeIfAbsent(nodeFor(classDTO), node -> new HashSet<>()).add(nodeFor(childDTO));
+            collectSubClasses(childDTO, subClasses, visited);
+        }
+    }
+
+    /**
+     * Adds the classes the types of the individual are bound to, each binding seeing the classes added by
+     * the ones before it.
+     */
+    private void writeBoundTypes(Node individual, List<Node> types) {
+
+        if (classBindings.isEmpty())
+            return;
+
+        Set<Node> individualTypes = new HashSet<>(types);
+
+        for (ClassBinding binding : classBindings) {
+            if (!Collections.disjoint(individualTypes, binding.boundClasses())
+                && individualTypes.add(binding.targetClass()))
+                add(individual, TYPE, binding.targetClass());
+        }
+    }
+
+    void flush() {
+
+        if (batch.isEmpty())
+            return;
+
+        output.accept(batch);
+        batch.clear();
+    }
+
+    Node writeClass(ClassDTO classDTO) {
+
+        Node ontClass = writtenResources.get(classDTO);
+
+        if (ontClass != null)
+            return ontClass;
+
+        ontClass = nodeFor(classDTO);
+        add(ontClass, TYPE, CLASS);
+        writeAnnotations(classDTO, ontClass);
+        writtenResources.put(classDTO, ontClass);
+
+        return ontClass;
+    }
+
+    private <T extends HierarchicalDTO<T>> Node writeProperty(T propertyDTO) {
+
+        Node property = writtenResources.get(propertyDTO);
+
+        if (property != null)
+            return property;
+
+        Node propertyType = switch (propertyDTO) {
+            case DataPropertyDTO dataPropertyDTO -> DATATYPE_PROPERTY;
+            case ObjectPropertyDTO objectPropertyDTO -> OBJECT_PROPERTY;
+            case AnnotationPropertyDTO annotationPropertyDTO -> ANNOTATION_PROPERTY;
+
+            case null ->
+                throw new NullPointerException("PropertyDTO is null! Check the value before passing it here!");
+
+            default ->
+                    throw new RuntimeException("Unknown property type: " + propertyDTO.getClass().getSimpleName());
+        };
+
+        property = nodeFor(propertyDTO);
+        add(property, TYPE, propertyType);
+        writeAnnotations(propertyDTO, property);
+        writtenResources.put(propertyDTO, property);
+        declaredProperties.add(property);
+
+        return property;
+    }
+
+    private void writeDataProperties(IndividualDTO individualDTO, Node individual) {
+
+        List<DataPropertyAssertion> dataProperties = individualDTO.getDataProperties();
+
+        if (dataProperties == null)
+            return;
+
+        for (DataPropertyAssertion dataPropertyAssertion : dataProperties) {
+
+            Node dataProperty = requireDeclaredProperty(dataPropertyAssertion.property(), "Data");
+            Object value = dataPropertyAssertion.value();
+
+            Node literal = switch (value) {
+                case null -> null;
+                case Integer i -> NodeFactory.createLiteralByValue(i, XSDDatatype.XSDint);
+                case Double d -> NodeFactory.createLiteralByValue(d, XSDDatatype.XSDdouble);
+                case Boolean b -> NodeFactory.createLiteralByValue(b, XSDDatatype.XSDboolean);
+                case Date date -> NodeFactory.createLiteral(
+                        new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(date), XSDDatatype.XSDdateTime);
+                case String s -> NodeFactory.createLiteral(s, XSDDatatype.XSDstring);
+                default -> throw new RuntimeException(
+                        String.format("Unsupported data type for property %s: %s",
+                                dataPropertyAssertion.property().getId(),
+                                value.getClass().getSimpleName()));
+            };
+
+            if (literal != null)
+                add(individual, dataProperty, literal);
+        }
+    }
+
+    private void writeObjectProperties(IndividualDTO individualDTO, Node individual) {
+
+        List<ObjectPropertyAssertion> objectProperties = individualDTO.getObjectProperties();
+
+        if (objectProperties == null)
+            return;
+
+        for (ObjectPropertyAssertion objectPropertyAssertion : objectProperties) {
+
+            Node objectProperty = requireDeclaredProperty(objectPropertyAssertion.property(), "Object");
+            add(individual, objectProperty, nodeFor(objectPropertyAssertion.object()));
+        }
+    }
+
+    private void writeAnnotations(ResourceDTO resourceDTO, Node resource) {
+
+        Collection<AnnotationAssertion> annotationProperties = resourceDTO.getAnnotationProperties();
+
+        if (annotationProperties == null)
+            return;
+
+        for (var annotationProperty : annotationProperties) {
+
+            Node predicate = switch (annotationProperty.type()) {
+                case label -> LABEL;
+                case comment -> COMMENT;
+                default -> throw new IllegalArgumentException(
+                        "Unsupported annotation property type: " + annotationProperty.type());
+            };
+
+            String value = annotationProperty.value();
+            String langTag = annotationProperty.langTag();
+
+            add(resource, predicate, langTag != null
+                    ? NodeFactory.createLiteralLang(value, langTag)
+                    : NodeFactory.createLiteralString(value));
+        }
+    }
+
+    private Node requireDeclaredProperty(ResourceDTO propertyDTO, String kind) {
+
+        Node property = nodeFor(propertyDTO);
+
+        if (declaredProperties.contains(property))
+            return property;
+
+        // Declared before this writer, e.g., in the loaded ontology file
+        flush();
+
+        if (model.getOntProperty(property.getURI()) == null) {
+            throw new RuntimeException(
+                    String.format("%s property %s could not be found in the ontology.", kind, property.getURI()));
+        }
+
+        declaredProperties.add(property);
+        return property;
+    }
+
+    /**
+     * @return the node of the resource, cached unless it is an individual, since each individual is written once.
+     */
+    private Node nodeFor(ResourceDTO resourceDTO) {
+
+        if (resourceDTO instanceof IndividualDTO)
+            return NodeFactory.createURI(namespace + resourceDTO.getId());
+
+        return schemaNodes.computeIfAbsent(resourceDTO.getId(), id -> NodeFactory.createURI(namespace + id));
+    }
+
+    /**
+     * @return the number of nodes cached, which does not grow with the number of individuals written.
+     */
+    int getCachedNodeCount() {
+        return schemaNodes.size();
+    }
+
+    private void add(Node subject, Node predicate, Node object) {
+
+        batch.add(Triple.create(subject, predicate, object));
+
+        if (batch.size() >= BATCH_SIZE)
+            flush();
+    }
+
+    /**
+     * The classes an entry of a class binding map binds, itself and its subclasses, and the class it binds them to.
+     */
+    private record ClassBinding(Set<Node> boundClasses, Node targetClass) {
+    }
+}
@@ -0,0 +1,117 @@
+package ogs.ontology;
+
+import ogs.model.core.OntologyFileFormat;
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+import org.apache.jena.tdb2.loader.base.LoaderOps;
+import org.apache.jena.tdb2.sys.StoreConnection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Keeps the ontology in the default graph of a TDB2 dataset in a directory, so that a run adds its triples
+ * to the stored ontology instead of parsing and rewriting the whole ontology file. The ontology file is
+ * bulk-loaded into the store the first time it is used, and can be written back from it.
+ *
+ * <p>The dataset can only be read and written in transactions: {@link #update} runs an action in a write
+ * transaction, which commits everything the action adds, or nothing if it fails. The dataset stays open
+ * until the store is {@link #close closed}.
+ */
+class OntologyStore {
+
+    private final Location location;
+    private final Dataset dataset;
+    private final Graph graph;
+
+    /**
+     * Connects to the dataset in the directory, creating it if there is none.
+     */
+    OntologyStore(String directoryPath) {
+        location = Location.create(directoryPath);
+        dataset = TDB2Factory.connectDataset(location);
+        graph = dataset.asDatasetGraph().getDefaultGraph();
+    }
+
+    /**
+     * @return the model of the stored ontology, to be used in transactions.
+     */
+    Model getModel() {
+        return dataset.getDefaultModel();
+    }
+
+    boolean isEmpty() {
+        return Txn.calculateRead(dataset, graph::isEmpty);
+    }
+
+    /**
+     * Bulk-loads an ontology file, in transactions of its own. The loader reports its progress to its log.
+     */
+    void load(String filePath) {
+
+        DataLoader loader = LoaderFactory.createLoader(dataset.asDatasetGraph(), LoaderOps.outputToLog());
+
+        loader.startBulk();
+
+        try {
+            loader.load(filePath);
+            loader.finishBulk();
+        } catch (RuntimeException e) {
+            loader.finishException(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the action in a write transaction, committed when it completes, or in the write transaction
+     * already begun.
+     */
+    void update(Runnable action) {
+        Txn.executeWrite(dataset, action);
+    }
+
+    /**
+     * Adds the triples, to be committed with the rest of the write transaction. Must be called in {@link #update}.
+     */
+    void add(List<Triple> triples) {
+        GraphUtil.add(graph, triples);
+    }
+
+    /**
+     * Writes the stored ontology to a file as it is read from the store.
+     */
+    void export(String filePath, OntologyFileFormat format) throws IOException {
+
+        dataset.begin(TxnType.READ);
+
+        try (OutputStream out = OntologyFileIO.openOutput(Path.of(filePath))) {
+
+            StreamRDF stream = OntologyFileIO.openStream(out, format);
+            stream.start();
+            graph.getPrefixMapping().getNsPrefixMap().forEach(stream::prefix);
+            graph.find().forEachRemaining(stream::triple);
+            stream.finish();
+        } finally {
+            dataset.end();
+        }
+    }
+
+    /**
+     * Releases the dataset, so that its files are closed and the directory may be used by another process.
+     */
+    void close() {
+        StoreConnection.release(location);
+    }
+}
@@ -0,0 +1,247 @@
+package ogs.ontology;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.impl.Util;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.util.XMLChar;
+import org.apache.jena.vocabulary.RDF;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes RDF/XML as the triples come, which Jena's RDF/XML writers cannot do, since they need the whole model.
+ * Consecutive triples of a subject form one {@code rdf:Description}; a subject may have several.
+ *
+ * <p>The prefixes given before the first triple are declared on {@code rdf:RDF}. Predicates in other
+ * namespaces declare theirs on their own element. Triples of named graphs are skipped.
+ */
+class RdfXmlStreamWriter implements StreamRDF {
+
+    private static final String RDF_PREFIX = "rdf";
+    private static final String UNDECLARED_PREFIX = "ns0";
+
+    private final Writer out;
+    // Namespace -> the first prefix declared for it
+    private final Map<String, String> prefixes = new LinkedHashMap<>();
+    private boolean rootWritten;
+    private Node currentSubject;
+
+    RdfXmlStreamWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start() {
+        prefixes.put(RDF.getURI(), RDF_PREFIX);
+    }
+
+    @Override
+    public void base(String base) {
+        // IRIs are written absolute
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+
+        if (rootWritten || RDF_PREFIX.equals(prefix) || !isValidPrefix(prefix))
+            return;
+
+        prefixes.putIfAbsent(iri, prefix);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+
+        try {
+            writeRoot();
+
+            if (!triple.getSubject().equals(currentSubject)) {
+                closeDescription();
+                openDescription(triple.getSubject());
+            }
+
+            writeProperty(triple.getPredicate(), triple.getObject());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+
+        if (quad.isTriple() || quad.isDefaultGraph())
+            triple(quad.asTriple());
+    }
+
+    @Override
+    public void finish() {
+
+        try {
+            writeRoot();
+            closeDescription();
+            out.write("</rdf:RDF>\n");
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRoot() throws IOException {
+
+        if (rootWritten)
+            return;
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rdf:RDF");
+
+        for (Map.Entry<String, String> namespace : prefixes.entrySet()) {
+            out.write("\n    xmlns");
+            if (!namespace.getValue().isEmpty())
+                out.write(":" + namespace.getValue());
+            out.write("=\"" + escapeAttribute(namespace.getKey()) + "\"");
+        }
+
+        out.write(">\n");
+        rootWritten = true;
+    }
+
+    private void openDescription(Node subject) throws IOException {
+
+        out.write("  <rdf:Description ");
+        out.write(subject.isBlank() ? "rdf:nodeID=\"" + blankNodeId(subject) : "rdf:about=\"" + escapeAttribute(uriOf(subject)));
+        out.write("\">\n");
+        currentSubject = subject;
+    }
+
+    private void closeDescription() throws IOException {
+
+        if (currentSubject == null)
+            return;
+
+        out.write("  </rdf:Description>\n");
+        currentSubject = null;
+    }
+
+    private void writeProperty(Node predicate, Node object) throws IOException {
+
+        String predicateURI = uriOf(predicate);
+        int split = Util.splitNamespaceXML(predicateURI);
+
+        if (split == predicateURI.length())
+            throw new RiotException("Cannot write the predicate as an RDF/XML element: " + predicateURI);
+
+        String namespace = predicateURI.substring(0, split);
+        String prefix = prefixes.get(namespace);
+        String localName = predicateURI.substring(split);
+        String element;
+
+        out.write("    <");
+
+        if (prefix == null) {
+            element = UNDECLARED_PREFIX + ":" + localName;
+            out.write(element + " xmlns:" + UNDECLARED_PREFIX + "=\"" + escapeAttribute(namespace) + "\"");
+        } else {
+            element = prefix.isEmpty() ? localName : prefix + ":" + localName;
+            out.write(element);
+        }
+
+        if (object.isURI()) {
+            out.write(" rdf:resource=\"" + escapeAttribute(object.getURI()) + "\"/>\n");
+            return;
+        }
+
+        if (object.isBlank()) {
+            out.write(" rdf:nodeID=\"" + blankNodeId(object) + "\"/>\n");
+            return;
+        }
+
+        if (!object.isLiteral())
+            throw new RiotException("Cannot write the object as RDF/XML: " + object);
+
+        if (!object.getLiteralLanguage().isEmpty())
+            out.write(" xml:lang=\"" + escapeAttribute(object.getLiteralLanguage()) + "\"");
+        else if (!Util.isSimpleString(object))
+            out.write(" rdf:datatype=\"" + escapeAttribute(object.getLiteralDatatypeURI()) + "\"");
+
+        out.write(">" + escapeText(object.getLiteralLexicalForm()) + "</" + element + ">\n");
+    }
+
+    private static String uriOf(Node node) {
+
+        if (!node.isURI())
+            throw new RiotException("Cannot write the node as an RDF/XML IRI: " + node);
+
+        return node.getURI();
+    }
+
+    /**
+     * @return the label of the blank node as a valid XML name, its other characters written as {@code _XXXX}.
+     */
+    private static String blankNodeId(Node node) {
+
+        StringBuilder id = new StringBuilder("b");
+
+        for (char c : node.getBlankNodeLabel().toCharArray()) {
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))
+                id.append(c);
+            else
+                id.append("_%04X".formatted((int) c));
+        }
+
+        return id.toString();
+    }
+
+    private static boolean isValidPrefix(String prefix) {
+        return prefix.isEmpty()
+               || (XMLChar.isValidNCName(prefix) && !prefix.toLowerCase().startsWith("xml"));
+    }
+
+    private static String escapeText(String text) {
+        return escape(text, false);
+    }
+
+    private static String escapeAttribute(String value) {
+        return escape(value, true);
+    }
+
+    private static String escape(String value, boolean attribute) {
+
+        StringBuilder escaped = null;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> attribute ? "&quot;" : null;
+                case '\r' -> "&#xD;";
+                case '\n' -> attribute ? "&#xA;" : null;
+                case '\t' -> attribute ? "&#x9;" : null;
+                default -> {
+                    if (c < 0x20 || c == 0xFFFE || c == 0xFFFF)
+                        throw new RiotException("Cannot write the character U+%04X in RDF/XML".formatted((int) c));
+                    yield null;
+                }
+            };
+
+            if (replacement != null && escaped == null)
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+
+            if (escaped != null) {
+                if (replacement != null)
+                    escaped.append(replacement);
+                else
+                    escaped.append(c);
+            }
+        }
+
+        return escaped == null ? value : escaped.toString();
+    }
+}
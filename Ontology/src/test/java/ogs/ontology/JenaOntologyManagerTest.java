@@ -0,0 +1,154 @@
+package ogs.ontology;
+
+import ogs.model.core.Configuration;
+import ogs.model.core.OntologyFileFormat;
+import ogs.model.ontology.*;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotNotFoundException;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JenaOntologyManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private List<ResourceDTO> resources;
+    private ClassDTO dog;
+    private ClassDTO pet;
+    private ClassDTO companion;
+
+    /**
+     * Builds a class hierarchy, multi-typed individuals whose comments mention each other,
+     * labels in several languages and a data property.
+     */
+    private void buildResources() {
+
+        ClassDTO animal = new ClassDTO("Animal");
+        dog = new ClassDTO("Dog");
+        ClassDTO puppy = new ClassDTO("Puppy");
+        ClassDTO cat = new ClassDTO("Cat");
+        ClassDTO plant = new ClassDTO("Plant");
+        pet = new ClassDTO("Pet");
+        companion = new ClassDTO("Companion");
+        dog.addAncestor(animal);
+        puppy.addAncestor(dog);
+        cat.addAncestor(animal);
+        animal.addLabel("Tier", "de");
+
+        DataPropertyDTO weight = new DataPropertyDTO("weight");
+
+        IndividualDTO rex = new IndividualDTO("rex", "Rex");
+        rex.addType(dog);
+        rex.addType(pet);
+        rex.addComment("Rex chases Tom and plays with Felix.");
+        rex.addDataProperty(new DataPropertyAssertion(weight, 31.5, Double.class));
+
+        IndividualDTO tom = new IndividualDTO("tom", "Tom");
+        tom.addType(cat);
+        tom.addComment("Hides from Rex, mostly");
+
+        IndividualDTO felix = new IndividualDTO("felix", "Felix");
+        felix.addType(puppy);
+        felix.addLabel("Félix", "fr");
+
+        IndividualDTO fern = new IndividualDTO("fern", "Fern");
+        fern.addType(plant);
+        fern.addType(animal);
+        fern.addComment("Not Rex");
+
+        resources = List.of(animal, dog, plant, pet, companion, weight, rex, tom, felix, fern);
+    }
+
+    @Test
+    void testStreamingOutputMatchesModelOutput() throws Exception {
+
+        for (OntologyFileFormat format : OntologyFileFormat.values()) {
+            for (boolean dogBindingFirst : new boolean[]{true, false}) {
+
+                Model expected = save(format, false, dogBindingFirst);
+                Model actual = save(format, true, dogBindingFirst);
+
+                assertTrue(expected.isIsomorphicWith(actual),
+                        "Streamed " + format + " differs, with the Dog binding first: " + dogBindingFirst);
+
+                // Bindings apply in order: Dog -> Pet first passes Felix, a puppy, on to Pet -> Companion
+                assertTrue(hasType(actual, "felix", "Pet"));
+                assertEquals(dogBindingFirst, hasType(actual, "felix", "Companion"));
+                assertTrue(hasType(actual, "rex", "Companion"));
+                // Rex -> Tom, Rex -> Felix, Tom -> Rex and Fern -> Rex
+                assertEquals(4, actual.listStatements().toList().stream()
+                        .filter(statement -> statement.getPredicate().getURI().endsWith("#associatesWith"))
+                        .count());
+            }
+        }
+    }
+
+    /**
+     * Saves the resources, bound Dog -> Pet and Pet -> Companion in either order, through the model
+     * or streaming, and reads the file back.
+     */
+    private Model save(OntologyFileFormat format, boolean streaming, boolean dogBindingFirst) throws Exception {
+
+        buildResources();
+
+        Map<ClassDTO, ClassDTO> bindings = new LinkedHashMap<>();
+        if (dogBindingFirst)
+            bindings.put(dog, pet);
+        bindings.put(pet, companion);
+        bindings.putIfAbsent(dog, pet);
+
+        Path outputDirectory = Files.createDirectories(
+                directory.resolve(format + "-" + dogBindingFirst + (streaming ? "-streamed" : "-model")));
+
+        var config = new Configuration();
+        config.setOutputDirectory(outputDirectory.toString());
+        config.setOntologyFileName("ontology");
+        config.setOntologyFileFormat(format);
+        config.setStreamingOutput(streaming);
+
+        var manager = new JenaOntologyManager(config);
+        // There is no ontology file to merge with
+        assertThrows(RiotNotFoundException.class, manager::initialize);
+        manager.setOntologyMetadata();
+
+        if (streaming) {
+            assertTrue(manager.isStreamingOutput());
+            manager.saveStreaming(resources, bindings);
+        } else {
+            manager.populateWith(resources);
+            manager.createAssociations(resources.stream()
+                    .filter(resource -> resource instanceof IndividualDTO)
+                    .map(resource -> (IndividualDTO) resource)
+                    .toList());
+            manager.bindClasses(bindings);
+            manager.save();
+        }
+
+        Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, outputDirectory.resolve("ontology" + format.getFileExtension()).toString());
+        return model;
+    }
+
+    private static boolean hasType(Model model, String individualId, String classId) {
+
+        return model.listStatements(null, RDF.type, (String) null).toList().stream()
+                .map(Statement::getSubject)
+                .filter(subject -> subject.isURIResource() && subject.getURI().endsWith("#" + individualId))
+                .anyMatch(subject -> subject.listProperties(RDF.type).toList().stream()
+                        .anyMatch(type -> type.getObject().isURIResource()
+                                          && type.getObject().asResource().getURI().endsWith("#" + classId)));
+    }
+}
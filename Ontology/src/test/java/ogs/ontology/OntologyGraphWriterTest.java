@@ -0,0 +1,73 @@
+package ogs.ontology;
+
+import ogs.model.ontology.*;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OntologyGraphWriterTest {
+
+    private static final String NAMESPACE = "http://example.org/ontology#";
+
+    @Test
+    void testStreamingKeepsNoStatePerIndividual() {
+
+        OntologyGraphWriter fewWriter = new OntologyGraphWriter(
+                ModelFactory.createOntologyModel(), NAMESPACE, StreamRDFLib.graph(GraphFactory.createDefaultGraph()));
+        writeIndividuals(fewWriter, 1);
+
+        Graph graph = GraphFactory.createDefaultGraph();
+        OntologyGraphWriter manyWriter = new OntologyGraphWriter(
+                ModelFactory.createOntologyModel(), NAMESPACE, StreamRDFLib.graph(graph));
+        writeIndividuals(manyWriter, 5_000);
+
+        assertEquals(fewWriter.getCachedNodeCount(), manyWriter.getCachedNodeCount());
+
+        // Puppies are dogs, bound to pets, themselves bound to companions
+        for (String type : List.of("Puppy", "Pet", "Companion"))
+            assertEquals(5_000, graph.find(null, RDF.type.asNode(), NodeFactory.createURI(NAMESPACE + type))
+                    .toList().size(), type);
+    }
+
+    /**
+     * Writes a class hierarchy, a data property and the individuals, every one a puppy with a weight,
+     * bound Dog -> Pet -> Companion.
+     */
+    private static void writeIndividuals(OntologyGraphWriter writer, int count) {
+
+        ClassDTO dog = new ClassDTO("Dog");
+        ClassDTO puppy = new ClassDTO("Puppy");
+        ClassDTO pet = new ClassDTO("Pet");
+        ClassDTO companion = new ClassDTO("Companion");
+        puppy.addAncestor(dog);
+
+        DataPropertyDTO weight = new DataPropertyDTO("weight");
+
+        List<ResourceDTO> resources = new ArrayList<>(List.of(dog, pet, companion, weight));
+
+        for (int i = 0; i < count; i++) {
+            IndividualDTO individual = new IndividualDTO("puppy" + i, "Puppy " + i);
+            individual.addType(puppy);
+            individual.addDataProperty(new DataPropertyAssertion(weight, (double) i, Double.class));
+            resources.add(individual);
+        }
+
+        Map<ClassDTO, ClassDTO> bindings = new LinkedHashMap<>();
+        bindings.put(dog, pet);
+        bindings.put(pet, companion);
+
+        writer.setClassBindings(resources, bindings);
+        writer.write(resources);
+    }
+}
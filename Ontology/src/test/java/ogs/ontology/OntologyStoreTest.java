@@ -0,0 +1,226 @@
+package ogs.ontology;
+
+import ogs.model.core.Configuration;
+import ogs.model.core.OntologyFileFormat;
+import ogs.model.ontology.*;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotNotFoundException;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OntologyStoreTest {
+
+    private static final String FILE_NAME = "ontology";
+    private static final OntologyFileFormat FORMAT = OntologyFileFormat.RdfXml;
+
+    @TempDir
+    Path directory;
+
+    private ClassDTO animal;
+
+    /**
+     * @return classes and an individual, the resources of the first run.
+     */
+    private List<ResourceDTO> firstResources() {
+
+        animal = new ClassDTO("Animal");
+        ClassDTO dog = new ClassDTO("Dog");
+        dog.addAncestor(animal);
+
+        IndividualDTO rex = new IndividualDTO("rex", "Rex");
+        rex.addType(dog);
+        rex.addComment("Chases cats");
+
+        return List.of(animal, dog, rex);
+    }
+
+    /**
+     * @return a class under the one of the first run, and an individual mentioning the one of the first run.
+     */
+    private List<ResourceDTO> secondResources() {
+
+        ClassDTO cat = new ClassDTO("Cat");
+        cat.addAncestor(animal);
+
+        IndividualDTO tom = new IndividualDTO("tom", "Tom");
+        tom.addType(cat);
+        tom.addComment("Hides from Rex");
+
+        return List.of(cat, tom);
+    }
+
+    @Test
+    void testFirstRunLoadsTheOntologyFile() throws Exception {
+
+        Path fileDirectory = Files.createDirectories(directory.resolve("file"));
+        run(fileDirectory, null, firstResources());
+        run(fileDirectory, null, secondResources());
+        Model expected = read(fileDirectory);
+
+        Path storeDirectory = Files.createDirectories(directory.resolve("store"));
+        String storePath = storeDirectory.resolve("tdb").toString();
+        run(storeDirectory, null, firstResources());
+        assertTrue(run(storeDirectory, storePath, secondResources()), "The ontology file was not loaded");
+
+        exportStore(storeDirectory, storePath);
+        assertTrue(expected.isIsomorphicWith(read(storeDirectory)));
+    }
+
+    @Test
+    void testSecondRunAddsOnlyItsTriples() throws Exception {
+
+        Path fileDirectory = Files.createDirectories(directory.resolve("file"));
+        run(fileDirectory, null, firstResources());
+        run(fileDirectory, null, secondResources());
+        Model expected = read(fileDirectory);
+
+        Path storeDirectory = Files.createDirectories(directory.resolve("store"));
+        String storePath = storeDirectory.resolve("tdb").toString();
+        assertFalse(run(storeDirectory, storePath, firstResources()));
+        assertFalse(Files.exists(ontologyFile(storeDirectory)), "Exported without exporting being configured");
+
+        // Once the store holds the ontology, the file is not read again
+        Model decoy = ModelFactory.createDefaultModel();
+        decoy.add(ResourceFactory.createResource("urn:decoy"), RDFS.label, "Decoy");
+        try (OutputStream out = Files.newOutputStream(ontologyFile(storeDirectory))) {
+            RDFDataMgr.write(out, decoy, Lang.RDFXML);
+        }
+
+        assertTrue(run(storeDirectory, storePath, secondResources()));
+
+        exportStore(storeDirectory, storePath);
+        assertTrue(expected.isIsomorphicWith(read(storeDirectory)));
+    }
+
+    @Test
+    void testExportedStoreReadsBackAsTheStore() throws Exception {
+
+        String storePath = directory.resolve("tdb").toString();
+        run(directory, storePath, firstResources());
+        exportStore(directory, storePath);
+
+        OntologyStore store = new OntologyStore(storePath);
+
+        try {
+            assertTrue(contents(store).isIsomorphicWith(read(directory)));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testFailedUpdateLeavesTheStoreUnchanged() {
+
+        Triple kept = triple("kept");
+        OntologyStore store = new OntologyStore(directory.resolve("tdb").toString());
+
+        try {
+            store.update(() -> store.add(List.of(kept)));
+
+            // Batches added before the failure are not committed either
+            assertThrows(IllegalStateException.class, () -> store.update(() -> {
+                store.add(List.of(triple("first batch")));
+                store.add(List.of(triple("second batch")));
+                throw new IllegalStateException("Failed run");
+            }));
+
+            Model contents = contents(store);
+            assertEquals(1, contents.size());
+            assertTrue(contents.getGraph().contains(kept));
+        } finally {
+            store.close();
+        }
+    }
+
+    /**
+     * Adds the resources to the ontology of the directory, kept in the store if its path is given.
+     *
+     * @return whether an existing ontology was added to.
+     */
+    private static boolean run(Path outputDirectory, String storePath, List<ResourceDTO> resources)
+            throws IOException {
+
+        JenaOntologyManager manager = new JenaOntologyManager(configure(outputDirectory, storePath));
+
+        try {
+            boolean existing;
+
+            try {
+                manager.initialize();
+                existing = true;
+            } catch (RiotNotFoundException e) {
+                existing = false;
+            }
+
+            manager.setOntologyMetadata();
+            manager.populateWith(resources);
+            manager.createAssociations(resources.stream()
+                    .filter(resource -> resource instanceof IndividualDTO)
+                    .map(resource -> (IndividualDTO) resource)
+                    .toList());
+            manager.save();
+
+            return existing;
+        } finally {
+            manager.close();
+        }
+    }
+
+    private static void exportStore(Path outputDirectory, String storePath) throws IOException {
+
+        JenaOntologyManager manager = new JenaOntologyManager(configure(outputDirectory, storePath));
+
+        try {
+            manager.exportStore();
+        } finally {
+            manager.close();
+        }
+    }
+
+    private static Configuration configure(Path outputDirectory, String storePath) {
+
+        var config = new Configuration();
+        config.setOutputDirectory(outputDirectory.toString());
+        config.setOntologyFileName(FILE_NAME);
+        config.setOntologyFileFormat(FORMAT);
+        config.setOntologyStoreDirectory(storePath);
+        return config;
+    }
+
+    private static Path ontologyFile(Path outputDirectory) {
+        return outputDirectory.resolve(FILE_NAME + FORMAT.getFileExtension());
+    }
+
+    private static Model read(Path outputDirectory) {
+
+        Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, ontologyFile(outputDirectory).toString());
+        return model;
+    }
+
+    private static Model contents(OntologyStore store) {
+
+        Model contents = ModelFactory.createDefaultModel();
+        store.update(() -> contents.add(store.getModel()));
+        return contents;
+    }
+
+    private static Triple triple(String label) {
+        return Triple.create(NodeFactory.createURI("urn:test"), RDFS.label.asNode(), NodeFactory.createLiteralString(label));
+    }
+}
@@ -0,0 +1,156 @@
+package ogs.ontology;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.*;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RdfXmlStreamWriterTest {
+
+    private static final String EX = "http://example.org/zoo#";
+
+    @Test
+    void testGraphRoundTrips() {
+
+        Model model = ModelFactory.createDefaultModel();
+        model.setNsPrefix("ex", EX);
+        model.setNsPrefix("owl", OWL.NS);
+        model.setNsPrefix("rdfs", RDFS.uri);
+        model.setNsPrefix("", "http://example.org/default/");
+        // Not a valid XML prefix, so its namespace is declared where it is used
+        model.setNsPrefix("xmlns2", "http://example.org/reserved/");
+
+        Resource rex = model.createResource(EX + "rex?a=1&b='2'");
+        Resource owner = model.createResource();
+
+        rex.addProperty(RDF.type, model.createResource(EX + "Dog"));
+        rex.addProperty(RDFS.label, "Rex", "en");
+        rex.addProperty(RDFS.label, "Rex \"the dog\"", "de-CH");
+        rex.addProperty(RDFS.comment, "Likes <bones> & \"balls\" ]]> a lot\n\ttabbed\r\nlines, é 中 😀");
+        rex.addLiteral(model.createProperty(EX, "age"), model.createTypedLiteral("7", XSDDatatype.XSDinteger));
+        rex.addLiteral(model.createProperty(EX, "weight"), model.createTypedLiteral("31.5", XSDDatatype.XSDdouble));
+        rex.addProperty(model.createProperty(EX, "owner"), owner);
+        rex.addProperty(model.createProperty("http://example.org/default/", "name"), "");
+        rex.addProperty(model.createProperty("http://example.org/reserved/", "flag"), "true");
+        // Outside the declared prefixes
+        rex.addProperty(model.createProperty("http://other.example/vocab/", "seenAt"), model.createResource());
+
+        owner.addProperty(model.createProperty(EX, "name"), "Ann");
+        owner.addProperty(model.createProperty("http://other.example/vocab#", "knows"), rex);
+
+        assertRoundTrips(model);
+    }
+
+    @Test
+    void testRandomGraphsRoundTrip() {
+
+        Random random = new Random(1);
+        String characters = "aZ<>&\"'\r\n\t ]]>é中😀#/:?=%";
+        String[] namespaces = {EX, "http://example.org/default/", "http://other.example/x/", EX + "sub/"};
+
+        for (int round = 0; round < 200; round++) {
+
+            Model model = ModelFactory.createDefaultModel();
+            model.setNsPrefix("ex", EX);
+            model.setNsPrefix("", "http://example.org/default/");
+
+            for (int i = 0; i < 30; i++) {
+
+                Resource subject = random.nextInt(4) == 0
+                        ? model.createResource()
+                        : model.createResource(EX + "s" + random.nextInt(10) + "&q=" + randomText(random, "abcé中😀"));
+                Property predicate = model.createProperty(namespaces[random.nextInt(namespaces.length)] + "p" + random.nextInt(5));
+
+                RDFNode object = switch (random.nextInt(5)) {
+                    case 0 -> model.createResource();
+                    case 1 -> model.createResource("http://example.org/o?a=1&b=" + random.nextInt(3));
+                    case 2 -> model.createLiteral(randomText(random, characters), "en-GB");
+                    case 3 -> model.createTypedLiteral(String.valueOf(random.nextInt()), XSDDatatype.XSDinteger);
+                    default -> model.createLiteral(randomText(random, characters));
+                };
+
+                model.add(subject, predicate, object);
+            }
+
+            assertRoundTrips(model);
+        }
+    }
+
+    @Test
+    void testNamedGraphsAreSkipped() {
+
+        var out = new ByteArrayOutputStream();
+        var writer = new RdfXmlStreamWriter(out);
+        var triple = Triple.create(NodeFactory.createURI(EX + "a"),
+                NodeFactory.createURI(EX + "p"), NodeFactory.createLiteralString("in a named graph"));
+
+        writer.start();
+        writer.quad(Quad.create(NodeFactory.createURI(EX + "graph"), triple));
+        writer.finish();
+
+        assertTrue(parse(out).isEmpty());
+    }
+
+    @Test
+    void testUnwritableTriplesAreRejected() {
+
+        var writer = new RdfXmlStreamWriter(new ByteArrayOutputStream());
+        writer.start();
+
+        // No local name can be split off
+        assertThrows(RiotException.class, () -> writer.triple(Triple.create(
+                NodeFactory.createURI(EX + "a"), NodeFactory.createURI("http://example.org/1/"),
+                NodeFactory.createLiteralString("x"))));
+
+        // Not allowed in XML 1.0
+        assertThrows(RiotException.class, () -> writer.triple(Triple.create(
+                NodeFactory.createURI(EX + "a"), NodeFactory.createURI(EX + "p"),
+                NodeFactory.createLiteralString("bell\u0007"))));
+    }
+
+    private static void assertRoundTrips(Model model) {
+
+        var out = new ByteArrayOutputStream();
+        var writer = new RdfXmlStreamWriter(out);
+
+        writer.start();
+        model.getNsPrefixMap().forEach(writer::prefix);
+        model.getGraph().find().forEach(writer::triple);
+        writer.finish();
+
+        Model parsed = parse(out);
+        assertTrue(model.isIsomorphicWith(parsed), () -> "Not isomorphic:\n" + out);
+    }
+
+    private static Model parse(ByteArrayOutputStream out) {
+
+        Model parsed = ModelFactory.createDefaultModel();
+        RDFParser.source(new ByteArrayInputStream(out.toByteArray())).lang(Lang.RDFXML).parse(parsed);
+        return parsed;
+    }
+
+    private static String randomText(Random random, String characters) {
+
+        int[] codePoints = characters.codePoints().toArray();
+        StringBuilder text = new StringBuilder();
+
+        for (int length = random.nextInt(8); length > 0; length--)
+            text.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+
+        return text.toString();
+    }
+}
@@ -4,7 +4,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
-import ogs.data.core.CellValue;
+import ogs.data.core.CellColumn;
 import ogs.data.analysis.ColumnAnalyzer;
 import ogs.data.analysis.SheetAnalyzer;
 
@@ -63,15 +63,15 @@ public class AnalysisReportController {
         gridPane.add(header, 1, 1);
 
         // Add row indices and elements
-        CellValue[] elements = analyzers[0].getColumnData();
-        for (int i = 0; i < elements.length; i++) {
+        CellColumn elements = analyzers[0].getColumnData();
+        for (int i = 0; i < elements.size(); i++) {
             // Row index
             Label rowIndex = new Label(String.valueOf(i + 1));
             rowIndex.setStyle("-fx-font-weight: bold; -fx-alignment: center;");
             gridPane.add(rowIndex, 0, i + 2);
 
             // Cell content
-            Label cellContent = new Label(elements[i].toString());
+            Label cellContent = new Label(elements.toString(i));
             gridPane.add(cellContent, 1, i + 2);
         }
 
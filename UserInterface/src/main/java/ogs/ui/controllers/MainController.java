@@ -11,6 +11,7 @@ import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import ogs.data.analysis.OntologyDataProvider;
 import ogs.data.assembly.OntologyDTOFactory;
+import ogs.data.assembly.ResourceRegistry;
 import ogs.data.core.LocalizationDictionaryProvider;
 import ogs.localization.OntologyLabelLocalizationService;
 import ogs.model.core.Configuration;
@@ -24,6 +25,7 @@ import ogs.ui.views.View;
 import ogs.ui.model.ConfigurationProperty;
 import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.RiotNotFoundException;
+import org.apache.jena.shared.JenaException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
 import java.io.File;
@@ -176,19 +178,38 @@ public class MainController {
     private void runScript() {
 
         OntologyDataProvider dataProvider;
-        LocalizationDictionaryProvider dictionaryProvider;
         JenaOntologyManager ontologyManager;
         Configuration config = configProperty.getConfiguration();
-        String localizationDictionaryFilePath = config.getLocalizationDictionaryFilePath();
         RegExPatterns.setDataCleansingPattern(config.getDataCleansingRegex());
 
         try {
             dataProvider = new OntologyDataProvider(config);
             ontologyManager = new JenaOntologyManager(config);
-            dataProvider.initialize();
         } catch (InvalidPathException e) {
             notificationService.warning("Invalid ontology output directory path!");
             return;
+        } catch (JenaException e) {
+            notificationService.error("Cannot open the ontology store!", e);
+            return;
+        }
+
+        // The source file is only opened in there, after the ontology store, so that the store is released
+        // whatever fails
+        try {
+            buildOntology(config, dataProvider, ontologyManager);
+        } finally {
+            ontologyManager.close();
+        }
+    }
+
+    private void buildOntology(Configuration config, OntologyDataProvider dataProvider,
+                               JenaOntologyManager ontologyManager) {
+
+        LocalizationDictionaryProvider dictionaryProvider;
+        String localizationDictionaryFilePath = config.getLocalizationDictionaryFilePath();
+
+        try {
+            dataProvider.initialize();
         } catch (IOException | InvalidFormatException e) {
             notificationService.error("Cannot open the source file!", e);
             return;
@@ -220,10 +241,11 @@ public class MainController {
 
         List<ResourceDTO> ontologyResources = new ArrayList<>();
         Map<ClassDTO, ClassDTO> classBindingMap = new HashMap<>();
+        ResourceRegistry resourceRegistry = new ResourceRegistry();
 
         for (var sheetAnalyzer : sheetAnalyzers) {
 
-            OntologyDTOFactory resourceProvider = new OntologyDTOFactory(sheetAnalyzer);
+            OntologyDTOFactory resourceProvider = new OntologyDTOFactory(sheetAnalyzer, resourceRegistry);
             ontologyResources.addAll(resourceProvider.getAllResources());
             classBindingMap.putAll(resourceProvider.getClassBindingPairs());
         }
@@ -232,7 +254,8 @@ public class MainController {
             try {
                 dictionaryProvider = new LocalizationDictionaryProvider(localizationDictionaryFilePath);
                 OntologyLabelLocalizationService localizationService
-                        = new OntologyLabelLocalizationService(dictionaryProvider.getDictionary());
+                        = new OntologyLabelLocalizationService(dictionaryProvider.getCompiledDictionary());
+                dictionaryProvider.close();
 //                localizationService.attachAllPossibleLabelsTo(ontologyResources.stream()
 //                        .filter(res -> res.getClass().equals(ClassDTO.class))
 //                        .toList());
@@ -258,17 +281,26 @@ public class MainController {
         // may set OntologyMetadata object here populated with metadata from user or source file
         ontologyManager.setOntologyMetadata();
 
-        ontologyManager.populateWith(ontologyResources);
-        ontologyManager.createAssociations(ontologyResources.stream()
-                .filter(res -> res instanceof IndividualDTO)
-                .map(res -> (IndividualDTO) res)
-                .toList());
-        ontologyManager.bindClasses(classBindingMap);
+        if (ontologyManager.isStreamingOutput()) {
+            try {
+                ontologyManager.saveStreaming(ontologyResources, classBindingMap);
+            } catch (IOException e) {
+                notificationService.error(e);
+            }
+        }
+        else {
+            ontologyManager.populateWith(ontologyResources);
+            ontologyManager.createAssociations(ontologyResources.stream()
+                    .filter(res -> res instanceof IndividualDTO)
+                    .map(res -> (IndividualDTO) res)
+                    .toList());
+            ontologyManager.bindClasses(classBindingMap);
 
-        try {
-            ontologyManager.save();
-        } catch (IOException e) {
-            notificationService.error(e);
+            try {
+                ontologyManager.save();
+            } catch (IOException e) {
+                notificationService.error(e);
+            }
         }
 
         notificationService.info("The ontology has been successfully created");